@@ -0,0 +1,41 @@
+/*
+ * Stand-in for the VoicemeeterRemote library that exports every VBVMR_*
+ * function and returns immediately, so BindingBenchmark can compare the JNA
+ * bindings on platforms without Voicemeeter. Only the cost of crossing into
+ * native code is measured, not the work of the real library.
+ *
+ *     gcc -shared -fPIC -O2 -o libVoicemeeterRemoteStub.so VoicemeeterRemoteStub.c
+ */
+
+int VBVMR_Login(void) { return 0; }
+int VBVMR_Logout(void) { return 0; }
+int VBVMR_RunVoicemeeter(int type) { return 0; }
+
+int VBVMR_GetVoicemeeterType(int *type) { *type = 2; return 0; }
+int VBVMR_GetVoicemeeterVersion(int *version) { *version = 0x02000800; return 0; }
+
+int VBVMR_IsParametersDirty(void) { return 0; }
+int VBVMR_GetParameterFloat(const char *paramName, float *value) { *value = -6.0f; return 0; }
+int VBVMR_GetParameterStringA(const char *paramName, char *string) { string[0] = 0; return 0; }
+int VBVMR_GetParameterStringW(const char *paramName, void *string) { ((char *) string)[0] = 0; ((char *) string)[1] = 0; return 0; }
+
+int VBVMR_GetLevel(int type, int channel, float *value) { *value = 0.5f; return 0; }
+int VBVMR_GetMidiMessage(unsigned char *midiBuffer, int byteMax) { return -5; }
+
+int VBVMR_SetParameterFloat(const char *paramName, float value) { return 0; }
+int VBVMR_SetParameterStringA(const char *paramName, const char *string) { return 0; }
+int VBVMR_SetParameterStringW(const char *paramName, const void *string) { return 0; }
+int VBVMR_SetParameters(const char *paramScript) { return 0; }
+int VBVMR_SetParametersW(const void *paramScript) { return 0; }
+
+int VBVMR_Output_GetDeviceNumber(void) { return 0; }
+int VBVMR_Output_GetDeviceDescA(int index, int *type, char *deviceName, char *hardwareId) { return -1; }
+int VBVMR_Output_GetDeviceDescW(int index, int *type, void *deviceName, void *hardwareId) { return -1; }
+int VBVMR_Input_GetDeviceNumber(void) { return 0; }
+int VBVMR_Input_GetDeviceDescA(int index, int *type, char *deviceName, char *hardwareId) { return -1; }
+int VBVMR_Input_GetDeviceDescW(int index, int *type, void *deviceName, void *hardwareId) { return -1; }
+
+int VBVMR_AudioCallbackRegister(int mode, void *callback, void *user, char *clientName) { return -1; }
+int VBVMR_AudioCallbackStart(void) { return -2; }
+int VBVMR_AudioCallbackStop(void) { return -2; }
+int VBVMR_AudioCallbackUnregister(void) { return 1; }
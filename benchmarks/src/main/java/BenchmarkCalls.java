@@ -0,0 +1,91 @@
+import com.sun.jna.Pointer;
+import me.mattco.voicemeeter.benchmarks.VoicemeeterCalls;
+
+/**
+ * Implements the benchmarked calls against the Voicemeeter facade, see
+ * {@link VoicemeeterCalls}.
+ */
+public class BenchmarkCalls implements VoicemeeterCalls {
+    private final Pointer levelValue = Voicemeeter.getPointer(4);
+    private ParameterHandle handle;
+    private LevelSnapshot levelSnapshot;
+    private ParameterBatcher batcher;
+
+    @Override
+    public void setUp() {
+        Voicemeeter.init(new FakeVoicemeeterInstance());
+        handle = new ParameterHandle("Strip[0].gain");
+        levelSnapshot = new LevelSnapshot(VoicemeeterType.BANANA);
+        batcher = new ParameterBatcher();
+    }
+
+    @Override
+    public void setUpLibrary(String bindingMode, String libraryPath) {
+        Voicemeeter.init(true, libraryPath, BindingMode.valueOf(bindingMode));
+        Voicemeeter.login();
+        handle = new ParameterHandle("Strip[0].gain");
+        batcher = new ParameterBatcher();
+    }
+
+    @Override
+    public float getParameterFloat(String parameterName) {
+        return Voicemeeter.getParameterFloat(parameterName);
+    }
+
+    @Override
+    public float getParameterFloatHandle() {
+        return handle.getFloat();
+    }
+
+    @Override
+    public void setParameterFloat(String parameterName, float value) {
+        Voicemeeter.setParameterFloat(parameterName, value);
+    }
+
+    @Override
+    public void setParameterFloatHandle(float value) {
+        handle.setFloat(value);
+    }
+
+    @Override
+    public float getLevel(int type, int channel) {
+        return Voicemeeter.getLevel(type, channel);
+    }
+
+    @Override
+    public float getLevelReused(int type, int channel) {
+        return Voicemeeter.getLevel(type, channel, levelValue);
+    }
+
+    @Override
+    public int getLevels(int type, float[] levels) {
+        return levelSnapshot.read(type, levels);
+    }
+
+    @Override
+    public void setParameters(String script) {
+        Voicemeeter.setParameters(script);
+    }
+
+    @Override
+    public int flushBatch(String[] parameterNames, float value) {
+        for (String parameterName : parameterNames)
+            batcher.set(parameterName, value);
+        return batcher.flush();
+    }
+
+    @Override
+    public byte[] getMidiMessage(int size) {
+        return Voicemeeter.getMidiMessage(size);
+    }
+
+    @Override
+    public int getNumberOfAudioDevices(boolean areInputDevices) {
+        return Voicemeeter.getNumberOfAudioDevices(areInputDevices);
+    }
+
+    @Override
+    public Object getAudioDeviceDescriptionA(int index, boolean isInputDevice) {
+        return Voicemeeter.getAudioDeviceDescriptionA(index, isInputDevice);
+    }
+}
@@ -0,0 +1,39 @@
+import me.mattco.voicemeeter.benchmarks.AudioKernelCalls;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Implements the benchmarked kernels with {@link AudioKernels}, see
+ * {@link AudioKernelCalls}.
+ */
+public class BenchmarkKernels implements AudioKernelCalls {
+    @Override
+    public void gain(FloatBuffer samples, float gain) {
+        AudioKernels.gain(samples, gain);
+    }
+
+    @Override
+    public void mix(FloatBuffer source, FloatBuffer target, float gain) {
+        AudioKernels.mix(source, target, gain);
+    }
+
+    @Override
+    public float peak(FloatBuffer samples) {
+        return AudioKernels.peak(samples);
+    }
+
+    @Override
+    public float rms(FloatBuffer samples) {
+        return AudioKernels.rms(samples);
+    }
+
+    @Override
+    public void interleave(FloatBuffer[] channels, float[] interleaved, int frames) {
+        AudioKernels.interleave(channels, interleaved, 0, frames);
+    }
+
+    @Override
+    public void deinterleave(float[] interleaved, FloatBuffer[] channels, int frames) {
+        AudioKernels.deinterleave(interleaved, 0, channels, frames);
+    }
+}
@@ -0,0 +1,157 @@
+import com.sun.jna.Pointer;
+
+/**
+ * Minimal in-process stand-in for the Voicemeeter library. Every call succeeds
+ * and returns fixed values, so benchmarks measure the cost of the wrapper
+ * rather than of Voicemeeter itself.
+ */
+public class FakeVoicemeeterInstance implements VoicemeeterInstance {
+    private final byte[] midi = {(byte) 0xB0, 0x07, 0x40};
+
+    @Override
+    public int VBVMR_Login() {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_Logout() {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_RunVoicemeeter(int type) {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetVoicemeeterType(Pointer type) {
+        type.setInt(0, VoicemeeterType.BANANA.getId());
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetVoicemeeterVersion(Pointer version) {
+        version.setInt(0, 0x02000000);
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_IsParametersDirty() {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetParameterFloat(Pointer paramName, Pointer value) {
+        value.setFloat(0, -6.0f);
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetParameterStringA(Pointer paramName, Pointer string) {
+        string.setByte(0, (byte) 0);
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetParameterStringW(Pointer paramName, Pointer string) {
+        string.setChar(0, '\0');
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetLevel(int type, int channel, Pointer value) {
+        value.setFloat(0, 0.5f);
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetMidiMessage(Pointer midiBuffer, int byteMax) {
+        int count = Math.min(midi.length, byteMax);
+        midiBuffer.write(0, midi, 0, count);
+        return count;
+    }
+
+    @Override
+    public int VBVMR_SetParameterFloat(Pointer paramName, float value) {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringA(Pointer paramName, Pointer string) {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringW(Pointer paramName, Pointer string) {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_SetParameters(Pointer paramScript) {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_SetParametersW(Pointer paramScript) {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceNumber() {
+        return 4;
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceNumber() {
+        return 4;
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackRegister(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, byte[] clientName) {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackStart() {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackStop() {
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackUnregister() {
+        return 0;
+    }
+
+    private int describeDevice(Pointer type, Pointer deviceName, Pointer hardwareId) {
+        // Empty strings keep string copies out of the measurement; a zero int
+        // terminates both the ANSI and the wide variant
+        type.setInt(0, VBVMR_DEVTYPE_WDM);
+        deviceName.setInt(0, 0);
+        hardwareId.setInt(0, 0);
+        return 0;
+    }
+}
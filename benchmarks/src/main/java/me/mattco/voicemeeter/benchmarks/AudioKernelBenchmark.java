@@ -0,0 +1,118 @@
+package me.mattco.voicemeeter.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of processing one callback buffer of every channel with the audio
+ * kernels. At 48 kHz a 512 sample buffer leaves about 10.6 ms per callback.
+ *
+ * Direct buffers in native order stand in for the views of the callback
+ * buffer; heap buffers show the array kernels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AudioKernelBenchmark {
+    @Param({"8"})
+    public int channels;
+
+    @Param({"512"})
+    public int frames;
+
+    @Param({"true", "false"})
+    public boolean direct;
+
+    private AudioKernelCalls kernels;
+    private FloatBuffer[] inputs;
+    private FloatBuffer[] outputs;
+    private float[] interleaved;
+
+    @Setup
+    public void setUp() {
+        kernels = AudioKernelCalls.load();
+        inputs = new FloatBuffer[channels];
+        outputs = new FloatBuffer[channels];
+        interleaved = new float[channels * frames];
+
+        Random random = new Random(0);
+        for (int c = 0; c < channels; c++) {
+            inputs[c] = allocate();
+            outputs[c] = allocate();
+            for (int i = 0; i < frames; i++)
+                inputs[c].put(i, random.nextFloat() * 2 - 1);
+        }
+    }
+
+    private FloatBuffer allocate() {
+        if (!direct)
+            return FloatBuffer.allocate(frames);
+        return ByteBuffer.allocateDirect(frames * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    @Benchmark
+    public FloatBuffer[] gain() {
+        // A gain of -1 keeps the samples in range across invocations
+        for (FloatBuffer input : inputs)
+            kernels.gain(input, -1);
+        return inputs;
+    }
+
+    /**
+     * Mixes every input into every output.
+     */
+    @Benchmark
+    public FloatBuffer[] mix() {
+        for (FloatBuffer output : outputs) {
+            for (FloatBuffer input : inputs)
+                kernels.mix(input, output, 0.125f);
+        }
+        return outputs;
+    }
+
+    @Benchmark
+    public float peak() {
+        float peak = 0;
+        for (FloatBuffer input : inputs)
+            peak = Math.max(peak, kernels.peak(input));
+        return peak;
+    }
+
+    @Benchmark
+    public float rms() {
+        float rms = 0;
+        for (FloatBuffer input : inputs)
+            rms += kernels.rms(input);
+        return rms;
+    }
+
+    @Benchmark
+    public float[] interleave() {
+        kernels.interleave(inputs, interleaved, frames);
+        return interleaved;
+    }
+
+    @Benchmark
+    public FloatBuffer[] deinterleave() {
+        kernels.deinterleave(interleaved, outputs, frames);
+        return outputs;
+    }
+}
@@ -0,0 +1,30 @@
+package me.mattco.voicemeeter.benchmarks;
+
+import java.nio.FloatBuffer;
+
+/**
+ * The AudioKernels calls measured by {@link AudioKernelBenchmark}, implemented
+ * by BenchmarkKernels in the default package for the same reason as
+ * {@link VoicemeeterCalls}.
+ */
+public interface AudioKernelCalls {
+    static AudioKernelCalls load() {
+        try {
+            return (AudioKernelCalls) Class.forName("BenchmarkKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to load the benchmark kernels", e);
+        }
+    }
+
+    void gain(FloatBuffer samples, float gain);
+
+    void mix(FloatBuffer source, FloatBuffer target, float gain);
+
+    float peak(FloatBuffer samples);
+
+    float rms(FloatBuffer samples);
+
+    void interleave(FloatBuffer[] channels, float[] interleaved, int frames);
+
+    void deinterleave(float[] interleaved, FloatBuffer[] channels, int frames);
+}
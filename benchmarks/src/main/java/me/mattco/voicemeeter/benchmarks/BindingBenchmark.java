@@ -0,0 +1,57 @@
+package me.mattco.voicemeeter.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of the interface and direct JNA bindings. By default the
+ * real VoicemeeterRemote library is called, on Windows with Voicemeeter
+ * running. Elsewhere, pass the stub built from src/main/c with
+ * {@code -p libraryPath=...}; it returns immediately, so only the binding
+ * overhead is measured.
+ *
+ * Each binding mode runs in its own fork, since direct mapping binds a class
+ * for the lifetime of the JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingBenchmark {
+    @Param({"INTERFACE", "DIRECT"})
+    public String bindingMode;
+
+    @Param("C:/Program Files (x86)/VB/Voicemeeter/VoicemeeterRemote64.dll")
+    public String libraryPath;
+
+    private VoicemeeterCalls calls;
+
+    @Setup
+    public void setUp() {
+        calls = VoicemeeterCalls.load();
+        calls.setUpLibrary(bindingMode, libraryPath);
+    }
+
+    @Benchmark
+    public float getParameterFloatHandle() {
+        return calls.getParameterFloatHandle();
+    }
+
+    @Benchmark
+    public float getLevel() {
+        return calls.getLevelReused(3, 0);
+    }
+}
@@ -0,0 +1,58 @@
+package me.mattco.voicemeeter.benchmarks;
+
+/**
+ * The Voicemeeter wrapper calls measured by the benchmarks.
+ *
+ * JMH requires benchmarks to live in a named package, while the library lives
+ * in the default package, which named packages cannot import. The calls are
+ * therefore implemented by BenchmarkCalls in the default package and loaded
+ * reflectively once, after which every call is a plain interface call.
+ */
+public interface VoicemeeterCalls {
+    static VoicemeeterCalls load() {
+        try {
+            return (VoicemeeterCalls) Class.forName("BenchmarkCalls").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to load the benchmark calls", e);
+        }
+    }
+
+    /**
+     * Installs the fake Voicemeeter instance and prepares reusable handles.
+     */
+    void setUp();
+
+    /**
+     * Loads and logs in to the real Voicemeeter library with a binding mode.
+     *
+     * @param bindingMode Name of a BindingMode constant
+     */
+    void setUpLibrary(String bindingMode, String libraryPath);
+
+    float getParameterFloat(String parameterName);
+
+    float getParameterFloatHandle();
+
+    void setParameterFloat(String parameterName, float value);
+
+    void setParameterFloatHandle(float value);
+
+    float getLevel(int type, int channel);
+
+    /**
+     * Reads a level into a reused value buffer, leaving only the native call.
+     */
+    float getLevelReused(int type, int channel);
+
+    int getLevels(int type, float[] levels);
+
+    void setParameters(String script);
+
+    int flushBatch(String[] parameterNames, float value);
+
+    byte[] getMidiMessage(int size);
+
+    int getNumberOfAudioDevices(boolean areInputDevices);
+
+    Object getAudioDeviceDescriptionA(int index, boolean isInputDevice);
+}
@@ -0,0 +1,98 @@
+package me.mattco.voicemeeter.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of the Voicemeeter wrapper hot paths, measured against an
+ * in-process fake library. Run with {@code -prof gc} to see allocation rates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WrapperBenchmark {
+    private static final String PARAMETER = "Strip[0].gain";
+    private static final String SCRIPT = "Strip[0].gain=-6.0;Strip[0].comp=4.5;Strip[1].mute=1";
+
+    private VoicemeeterCalls calls;
+    private float[] levels;
+    private String[] batchParameters;
+
+    @Setup
+    public void setUp() {
+        calls = VoicemeeterCalls.load();
+        calls.setUp();
+        levels = new float[40];
+        batchParameters = new String[20];
+        for (int i = 0; i < batchParameters.length; i++)
+            batchParameters[i] = "Strip[" + i + "].gain";
+    }
+
+    @Benchmark
+    public float getParameterFloat() {
+        return calls.getParameterFloat(PARAMETER);
+    }
+
+    @Benchmark
+    public float getParameterFloatHandle() {
+        return calls.getParameterFloatHandle();
+    }
+
+    @Benchmark
+    public void setParameterFloat() {
+        calls.setParameterFloat(PARAMETER, -6.0f);
+    }
+
+    @Benchmark
+    public void setParameterFloatHandle() {
+        calls.setParameterFloatHandle(-6.0f);
+    }
+
+    @Benchmark
+    public float getLevel() {
+        return calls.getLevel(3, 0);
+    }
+
+    @Benchmark
+    public int getLevelsAllOutputs() {
+        return calls.getLevels(3, levels);
+    }
+
+    @Benchmark
+    public void setParameters() {
+        calls.setParameters(SCRIPT);
+    }
+
+    @Benchmark
+    public int setParameterBatch() {
+        return calls.flushBatch(batchParameters, -6.0f);
+    }
+
+    @Benchmark
+    public byte[] getMidiMessage() {
+        return calls.getMidiMessage(1024);
+    }
+
+    @Benchmark
+    public int getNumberOfAudioDevices() {
+        return calls.getNumberOfAudioDevices(true);
+    }
+
+    @Benchmark
+    public Object getAudioDeviceDescriptionA() {
+        return calls.getAudioDeviceDescriptionA(0, true);
+    }
+}
@@ -0,0 +1,98 @@
+import com.sun.jna.Pointer;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * A view over the tagVBVMR_AUDIOBUFFER structure passed to the audio callback.
+ * Channels are exposed as direct {@link FloatBuffer}s over the native sample
+ * buffers. The views are cached per channel and only rebuilt when Voicemeeter
+ * hands over a different buffer address or frame size, so reading a buffer does
+ * not copy samples or allocate in the steady state.
+ *
+ * The views are only valid for the duration of the callback they were obtained
+ * in.
+ */
+public class AudioBuffer {
+    public static final int MAX_CHANNELS = 128;
+
+    private static final int READ_OFFSET = 16;
+    private static final int WRITE_OFFSET = READ_OFFSET + MAX_CHANNELS * Pointer.SIZE;
+
+    private final long[] inputAddresses = new long[MAX_CHANNELS];
+    private final long[] outputAddresses = new long[MAX_CHANNELS];
+    private final FloatBuffer[] inputs = new FloatBuffer[MAX_CHANNELS];
+    private final FloatBuffer[] outputs = new FloatBuffer[MAX_CHANNELS];
+
+    private Pointer data;
+    private int sampleRate;
+    private int samplesPerFrame;
+    private int inputCount;
+    private int outputCount;
+
+    void update(Pointer data) {
+        this.data = data;
+        sampleRate = data.getInt(0);
+        samplesPerFrame = data.getInt(4);
+        inputCount = data.getInt(8);
+        outputCount = data.getInt(12);
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getSamplesPerFrame() {
+        return samplesPerFrame;
+    }
+
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    public int getOutputCount() {
+        return outputCount;
+    }
+
+    /**
+     * @return The samples of an input channel (audiobuffer_r), positioned at
+     *          the first sample
+     */
+    public FloatBuffer getInput(int channel) {
+        if (channel < 0 || channel >= inputCount)
+            throw new IndexOutOfBoundsException("Input channel " + channel + " is out of range");
+        return view(READ_OFFSET, channel, inputAddresses, inputs);
+    }
+
+    /**
+     * @return The samples of an output channel (audiobuffer_w), positioned at
+     *          the first sample
+     */
+    public FloatBuffer getOutput(int channel) {
+        if (channel < 0 || channel >= outputCount)
+            throw new IndexOutOfBoundsException("Output channel " + channel + " is out of range");
+        return view(WRITE_OFFSET, channel, outputAddresses, outputs);
+    }
+
+    private FloatBuffer view(int offset, int channel, long[] addresses, FloatBuffer[] views) {
+        long address = readAddress(offset + channel * Pointer.SIZE);
+        FloatBuffer view = views[channel];
+
+        if (view == null || addresses[channel] != address || view.capacity() != samplesPerFrame) {
+            view = new Pointer(address).getByteBuffer(0, samplesPerFrame * 4L)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+            views[channel] = view;
+            addresses[channel] = address;
+        }
+
+        view.clear();
+        return view;
+    }
+
+    private long readAddress(int offset) {
+        if (Pointer.SIZE == 8)
+            return data.getLong(offset);
+        return data.getInt(offset) & 0xFFFFFFFFL;
+    }
+}
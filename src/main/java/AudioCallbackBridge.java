@@ -0,0 +1,39 @@
+import com.sun.jna.Pointer;
+
+/**
+ * Native audio callback forwarding Voicemeeter commands to an
+ * {@link AudioProcessor}. The same {@link AudioBuffer} view is reused for every
+ * frame.
+ */
+class AudioCallbackBridge implements VoicemeeterInstance.T_VBVMR_VBAUDIOCALLBACK {
+    private final AudioProcessor processor;
+    private final AudioBuffer buffer = new AudioBuffer();
+
+    AudioCallbackBridge(AudioProcessor processor) {
+        this.processor = processor;
+    }
+
+    @Override
+    public boolean callback(Pointer user, int command, Pointer data, int nnn) {
+        switch (command) {
+            case VoicemeeterInstance.VBVMR_CBCOMMAND_STARTING:
+                processor.starting(data.getInt(0), data.getInt(4));
+                break;
+            case VoicemeeterInstance.VBVMR_CBCOMMAND_ENDING:
+                processor.ending();
+                break;
+            case VoicemeeterInstance.VBVMR_CBCOMMAND_CHANGE:
+                processor.changed();
+                break;
+            case VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_IN:
+            case VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_OUT:
+            case VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_MAIN:
+                buffer.update(data);
+                processor.process(command, buffer);
+                break;
+            default:
+                break;
+        }
+        return false;
+    }
+}
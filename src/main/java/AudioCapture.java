@@ -0,0 +1,239 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records the frames of an {@link AudioRingBuffer} to disk as interleaved 32bit
+ * float WAV or raw files. Frames are written into memory mapped, pre-sized
+ * segment files on a background thread; when a segment is full, recording rolls
+ * over to the next one. The WAV header of each segment is patched with the
+ * final sizes when the segment is closed, and a partly filled last segment is
+ * truncated to its data once its mapping is released. Failures to do so are
+ * thrown by {@link #close()}.
+ *
+ * The audio callback only ever writes to the ring buffer, typically through an
+ * {@link AudioTap}, so disk I/O never blocks the Voicemeeter audio thread.
+ */
+public class AudioCapture implements Closeable {
+    private static final int WAV_HEADER_SIZE = 44;
+    private static final int READ_FRAMES = 1024;
+    private static final long IDLE_PARK_NANOS = 1000000;
+
+    private final AudioRingBuffer ringBuffer;
+    private final int sampleRate;
+    private final Path directory;
+    private final String name;
+    private final long segmentFrames;
+    private final boolean wav;
+    private final int channels;
+    private final float[] work;
+
+    private Thread thread;
+    private volatile boolean running;
+    private volatile IOException failure;
+
+    private int segmentIndex;
+    private Path segmentFile;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segmentBuffer;
+    private FloatBuffer segmentSamples;
+    private long segmentWritten;
+
+    /**
+     * @param ringBuffer    Ring buffer to drain
+     * @param sampleRate    Sample rate written to the WAV header
+     * @param directory     Directory to write segments to
+     * @param name          Segment file name prefix. Segments are named
+     *                       name-0000.wav, name-0001.wav, ...
+     * @param segmentFrames Number of frames per segment file
+     * @param wav           Whether to write WAV files rather than raw samples
+     */
+    public AudioCapture(AudioRingBuffer ringBuffer, int sampleRate, Path directory, String name, long segmentFrames, boolean wav) {
+        this.ringBuffer = ringBuffer;
+        this.sampleRate = sampleRate;
+        this.directory = directory;
+        this.name = name;
+        this.segmentFrames = segmentFrames;
+        this.wav = wav;
+        this.channels = ringBuffer.getChannels();
+        this.work = new float[READ_FRAMES * channels];
+
+        if (segmentFrames <= 0 || headerSize() + segmentFrames * channels * 4 > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid segment size of " + segmentFrames + " frames");
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        running = true;
+        thread = new Thread(this::run, "Voicemeeter audio capture");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Drains the remaining frames, closes the current segment and stops the
+     * capture thread.
+     *
+     * @throws IOException If writing a segment failed at any point
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (thread != null) {
+            running = false;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+
+        if (failure != null)
+            throw failure;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                if (!drain())
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            while (drain()) {
+                // Write out what was left when the capture was closed
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            try {
+                finishSegment();
+            } catch (IOException e) {
+                if (failure == null)
+                    failure = e;
+            }
+        }
+    }
+
+    private boolean drain() throws IOException {
+        int frames = ringBuffer.read(work, READ_FRAMES);
+        int offset = 0;
+
+        while (offset < frames) {
+            if (segmentChannel == null || segmentWritten == segmentFrames) {
+                finishSegment();
+                nextSegment();
+            }
+
+            int count = (int) Math.min(frames - offset, segmentFrames - segmentWritten);
+            segmentSamples.put(work, offset * channels, count * channels);
+            segmentWritten += count;
+            offset += count;
+        }
+
+        return frames > 0;
+    }
+
+    private void nextSegment() throws IOException {
+        String fileName = String.format("%s-%04d.%s", name, segmentIndex++, wav ? "wav" : "raw");
+        segmentFile = directory.resolve(fileName);
+        segmentChannel = FileChannel.open(segmentFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        segmentBuffer = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize() + segmentFrames * channels * 4);
+        segmentBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (wav)
+            writeWavHeader(0);
+
+        segmentBuffer.position(headerSize());
+        segmentSamples = segmentBuffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        segmentWritten = 0;
+    }
+
+    private void finishSegment() throws IOException {
+        if (segmentChannel == null)
+            return;
+
+        long dataSize = segmentWritten * channels * 4;
+        try {
+            if (wav)
+                writeWavHeader(dataSize);
+            segmentBuffer.force();
+        } finally {
+            segmentChannel.close();
+            unmap(segmentBuffer);
+            segmentChannel = null;
+            segmentBuffer = null;
+            segmentSamples = null;
+        }
+
+        // Windows refuses to truncate a file while a mapping of it is open, so
+        // the padding is cut off once the mapping is released
+        if (segmentWritten < segmentFrames) {
+            try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+                channel.truncate(headerSize() + dataSize);
+            }
+        }
+    }
+
+    /**
+     * Releases a mapping right away rather than when the buffer is garbage
+     * collected. If the JVM offers no way to do so, the mapping is left to the
+     * garbage collector.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                // Java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null)
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                return;
+            }
+
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Unmapped when the buffer is collected
+        }
+    }
+
+    private void writeWavHeader(long dataSize) {
+        MappedByteBuffer b = segmentBuffer;
+        b.put(0, (byte) 'R').put(1, (byte) 'I').put(2, (byte) 'F').put(3, (byte) 'F');
+        b.putInt(4, (int) (WAV_HEADER_SIZE - 8 + dataSize));
+        b.put(8, (byte) 'W').put(9, (byte) 'A').put(10, (byte) 'V').put(11, (byte) 'E');
+        b.put(12, (byte) 'f').put(13, (byte) 'm').put(14, (byte) 't').put(15, (byte) ' ');
+        b.putInt(16, 16);
+        // WAVE_FORMAT_IEEE_FLOAT
+        b.putShort(20, (short) 3);
+        b.putShort(22, (short) channels);
+        b.putInt(24, sampleRate);
+        b.putInt(28, sampleRate * channels * 4);
+        b.putShort(32, (short) (channels * 4));
+        b.putShort(34, (short) 32);
+        b.put(36, (byte) 'd').put(37, (byte) 'a').put(38, (byte) 't').put(39, (byte) 'a');
+        b.putInt(40, (int) dataSize);
+    }
+
+    private int headerSize() {
+        return wav ? WAV_HEADER_SIZE : 0;
+    }
+}
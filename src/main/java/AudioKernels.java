@@ -0,0 +1,224 @@
+import java.nio.FloatBuffer;
+
+/**
+ * Per-sample primitives for processing callback buffers: gain, mix, peak, RMS
+ * and conversion between the per-channel buffers of {@link AudioBuffer} and
+ * interleaved frames.
+ *
+ * Every kernel is a simple counted loop over one channel with its bounds
+ * checked up front, the shape HotSpot compiles to SIMD instructions for
+ * arrays. Buffer kernels run the array kernel on heap buffers and use indexed
+ * access on direct buffers, such as the {@link AudioBuffer} views, which is
+ * slower than on arrays but neither copies nor allocates. Buffer kernels
+ * operate on the samples between position and limit and do not move it.
+ *
+ * Reductions keep four independent partial results, so the additions of one
+ * step do not wait on the previous one. Their results may therefore differ
+ * from a sequential sum in the last bits.
+ */
+public final class AudioKernels {
+    private AudioKernels() {
+    }
+
+    /**
+     * Multiplies samples by a linear gain in place.
+     */
+    public static void gain(float[] samples, int offset, int length, float gain) {
+        checkRange(samples.length, offset, length);
+        for (int i = offset; i < offset + length; i++)
+            samples[i] *= gain;
+    }
+
+    public static void gain(FloatBuffer samples, float gain) {
+        if (samples.hasArray()) {
+            gain(samples.array(), samples.arrayOffset() + samples.position(), samples.remaining(), gain);
+            return;
+        }
+
+        for (int i = samples.position(); i < samples.limit(); i++)
+            samples.put(i, samples.get(i) * gain);
+    }
+
+    /**
+     * Adds source samples scaled by a linear gain to target samples.
+     */
+    public static void mix(float[] source, int sourceOffset, float[] target, int targetOffset, int length, float gain) {
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        for (int i = 0; i < length; i++)
+            target[targetOffset + i] += source[sourceOffset + i] * gain;
+    }
+
+    /**
+     * Adds the remaining source samples scaled by a linear gain to the target.
+     *
+     * @throws IllegalArgumentException If the buffers have a different number
+     *                                  of remaining samples
+     */
+    public static void mix(FloatBuffer source, FloatBuffer target, float gain) {
+        int length = checkLengths(source, target);
+        if (source.hasArray() && target.hasArray()) {
+            mix(source.array(), source.arrayOffset() + source.position(),
+                    target.array(), target.arrayOffset() + target.position(), length, gain);
+            return;
+        }
+
+        int sourceOffset = source.position();
+        int targetOffset = target.position();
+        for (int i = 0; i < length; i++)
+            target.put(targetOffset + i, target.get(targetOffset + i) + source.get(sourceOffset + i) * gain);
+    }
+
+    /**
+     * Copies source samples scaled by a linear gain to the target, replacing
+     * its samples.
+     */
+    public static void copy(float[] source, int sourceOffset, float[] target, int targetOffset, int length, float gain) {
+        checkRange(source.length, sourceOffset, length);
+        checkRange(target.length, targetOffset, length);
+        for (int i = 0; i < length; i++)
+            target[targetOffset + i] = source[sourceOffset + i] * gain;
+    }
+
+    public static void copy(FloatBuffer source, FloatBuffer target, float gain) {
+        int length = checkLengths(source, target);
+        if (source.hasArray() && target.hasArray()) {
+            copy(source.array(), source.arrayOffset() + source.position(),
+                    target.array(), target.arrayOffset() + target.position(), length, gain);
+            return;
+        }
+
+        int sourceOffset = source.position();
+        int targetOffset = target.position();
+        for (int i = 0; i < length; i++)
+            target.put(targetOffset + i, source.get(sourceOffset + i) * gain);
+    }
+
+    /**
+     * @return The largest absolute sample value, or 0 if length is 0
+     */
+    public static float peak(float[] samples, int offset, int length) {
+        checkRange(samples.length, offset, length);
+        float peak = 0;
+        for (int i = offset; i < offset + length; i++)
+            peak = Math.max(peak, Math.abs(samples[i]));
+        return peak;
+    }
+
+    public static float peak(FloatBuffer samples) {
+        if (samples.hasArray())
+            return peak(samples.array(), samples.arrayOffset() + samples.position(), samples.remaining());
+
+        float peak = 0;
+        for (int i = samples.position(); i < samples.limit(); i++)
+            peak = Math.max(peak, Math.abs(samples.get(i)));
+        return peak;
+    }
+
+    public static float sumOfSquares(float[] samples, int offset, int length) {
+        checkRange(samples.length, offset, length);
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int end = offset + length;
+        int i = offset;
+        for (; i + 3 < end; i += 4) {
+            sum0 += samples[i] * samples[i];
+            sum1 += samples[i + 1] * samples[i + 1];
+            sum2 += samples[i + 2] * samples[i + 2];
+            sum3 += samples[i + 3] * samples[i + 3];
+        }
+        for (; i < end; i++)
+            sum0 += samples[i] * samples[i];
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    public static float sumOfSquares(FloatBuffer samples) {
+        if (samples.hasArray())
+            return sumOfSquares(samples.array(), samples.arrayOffset() + samples.position(), samples.remaining());
+
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int end = samples.limit();
+        int i = samples.position();
+        for (; i + 3 < end; i += 4) {
+            float s0 = samples.get(i), s1 = samples.get(i + 1), s2 = samples.get(i + 2), s3 = samples.get(i + 3);
+            sum0 += s0 * s0;
+            sum1 += s1 * s1;
+            sum2 += s2 * s2;
+            sum3 += s3 * s3;
+        }
+        for (; i < end; i++) {
+            float s = samples.get(i);
+            sum0 += s * s;
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * @return The root mean square of the samples, or 0 if length is 0
+     */
+    public static float rms(float[] samples, int offset, int length) {
+        return length == 0 ? 0 : (float) Math.sqrt(sumOfSquares(samples, offset, length) / length);
+    }
+
+    public static float rms(FloatBuffer samples) {
+        int length = samples.remaining();
+        return length == 0 ? 0 : (float) Math.sqrt(sumOfSquares(samples) / length);
+    }
+
+    /**
+     * Writes frames of the channel buffers, read from their position, as
+     * interleaved frames. One channel is copied at a time, so each loop reads
+     * one buffer sequentially.
+     *
+     * @param channels     Channel buffers, such as the inputs of an
+     *                      {@link AudioBuffer}
+     * @param interleaved  Target, holding channels.length samples per frame
+     * @param offsetFrames First frame of the target to write
+     */
+    public static void interleave(FloatBuffer[] channels, float[] interleaved, int offsetFrames, int frames) {
+        int stride = channels.length;
+        checkRange(interleaved.length, offsetFrames * stride, frames * stride);
+
+        for (int c = 0; c < stride; c++) {
+            FloatBuffer channel = channels[c];
+            checkRange(channel.limit(), channel.position(), frames);
+
+            int source = channel.position();
+            int target = offsetFrames * stride + c;
+            for (int i = 0; i < frames; i++)
+                interleaved[target + i * stride] = channel.get(source + i);
+        }
+    }
+
+    /**
+     * Writes interleaved frames to the channel buffers, from their position.
+     *
+     * @param channels Channel buffers, such as the outputs of an
+     *                  {@link AudioBuffer}
+     */
+    public static void deinterleave(float[] interleaved, int offsetFrames, FloatBuffer[] channels, int frames) {
+        int stride = channels.length;
+        checkRange(interleaved.length, offsetFrames * stride, frames * stride);
+
+        for (int c = 0; c < stride; c++) {
+            FloatBuffer channel = channels[c];
+            checkRange(channel.limit(), channel.position(), frames);
+
+            int source = offsetFrames * stride + c;
+            int target = channel.position();
+            for (int i = 0; i < frames; i++)
+                channel.put(target + i, interleaved[source + i * stride]);
+        }
+    }
+
+    private static int checkLengths(FloatBuffer source, FloatBuffer target) {
+        int length = source.remaining();
+        if (target.remaining() != length)
+            throw new IllegalArgumentException("Expected " + length + " target samples, got " + target.remaining());
+        return length;
+    }
+
+    private static void checkRange(int size, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size - length)
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + length + " is out of bounds for " + size);
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Receives the audio streams of a callback registered through
+ * {@link Voicemeeter#registerAudioCallback(int, String, AudioProcessor)}.
+ *
+ * All methods are called on the Voicemeeter audio thread, which is real time.
+ * See {@link VoicemeeterInstance.T_VBVMR_VBAUDIOCALLBACK} for what may not be
+ * done there.
+ */
+public interface AudioProcessor {
+    /**
+     * Called on VBVMR_CBCOMMAND_STARTING, before the first buffer.
+     */
+    default void starting(int sampleRate, int samplesPerFrame) {
+    }
+
+    /**
+     * Called on VBVMR_CBCOMMAND_ENDING, after the last buffer.
+     */
+    default void ending() {
+    }
+
+    /**
+     * Called on VBVMR_CBCOMMAND_CHANGE. The audio stream must be restarted.
+     */
+    default void changed() {
+    }
+
+    /**
+     * Processes one frame of audio.
+     *
+     * @param command VBVMR_CBCOMMAND_BUFFER_IN, VBVMR_CBCOMMAND_BUFFER_OUT or
+     *                 VBVMR_CBCOMMAND_BUFFER_MAIN
+     * @param buffer  View over the audio buffers of the frame
+     */
+    void process(int command, AudioBuffer buffer);
+}
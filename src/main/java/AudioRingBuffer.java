@@ -0,0 +1,156 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring buffer of interleaved 32bit
+ * float frames, stored off-heap. It hands audio off the real time callback
+ * thread: the producer never waits, and drops whole blocks when the consumer
+ * falls behind, counting them as overruns.
+ */
+public class AudioRingBuffer {
+    private final int channels;
+    private final int capacity;
+    private final int mask;
+    private final FloatBuffer samples;
+
+    // Positions are in frames and only ever increase
+    private final AtomicLong readPosition = new AtomicLong();
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    /**
+     * @param channels       Number of interleaved channels per frame
+     * @param capacityFrames Minimum capacity in frames, rounded up to a power
+     *                        of two
+     */
+    public AudioRingBuffer(int channels, int capacityFrames) {
+        if (channels <= 0 || capacityFrames <= 0)
+            throw new IllegalArgumentException("Invalid ring buffer size " + channels + "x" + capacityFrames);
+
+        int capacity = Integer.highestOneBit(capacityFrames);
+        if (capacity < capacityFrames)
+            capacity <<= 1;
+
+        this.channels = channels;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.samples = ByteBuffer.allocateDirect(capacity * channels * 4)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * @return The capacity of the buffer in frames
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of frames waiting to be read
+     */
+    public int available() {
+        return (int) (writePosition.get() - readPosition.get());
+    }
+
+    /**
+     * @return The number of writes dropped because the buffer was full
+     */
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    /**
+     * @return The number of frames dropped because the buffer was full
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Writes one frame of audio from a callback buffer. Only called by the
+     * producer.
+     *
+     * @param buffer       Callback buffer to read samples from
+     * @param bufferChannels Channels of the callback buffer to record, one per
+     *                        ring buffer channel
+     * @param outputs      Whether to read the output (audiobuffer_w) rather
+     *                      than the input (audiobuffer_r) channels
+     * @return Whether the frames were written, false on overrun
+     */
+    public boolean write(AudioBuffer buffer, int[] bufferChannels, boolean outputs) {
+        if (bufferChannels.length != channels)
+            throw new IllegalArgumentException("Expected " + channels + " channels, got " + bufferChannels.length);
+
+        int frames = buffer.getSamplesPerFrame();
+        long position = writePosition.get();
+        if (!reserve(position, frames))
+            return false;
+
+        for (int c = 0; c < channels; c++) {
+            FloatBuffer source = outputs ? buffer.getOutput(bufferChannels[c]) : buffer.getInput(bufferChannels[c]);
+            for (int i = 0; i < frames; i++)
+                samples.put((int) ((position + i) & mask) * channels + c, source.get(i));
+        }
+
+        writePosition.lazySet(position + frames);
+        return true;
+    }
+
+    /**
+     * Writes interleaved frames. Only called by the producer.
+     *
+     * @return Whether the frames were written, false on overrun
+     */
+    public boolean write(float[] interleaved, int offsetFrames, int frames) {
+        long position = writePosition.get();
+        if (!reserve(position, frames))
+            return false;
+
+        for (int i = 0; i < frames; i++) {
+            int target = (int) ((position + i) & mask) * channels;
+            int source = (offsetFrames + i) * channels;
+            for (int c = 0; c < channels; c++)
+                samples.put(target + c, interleaved[source + c]);
+        }
+
+        writePosition.lazySet(position + frames);
+        return true;
+    }
+
+    /**
+     * Reads up to maxFrames interleaved frames. Only called by the consumer.
+     *
+     * @return The number of frames read
+     */
+    public int read(float[] interleaved, int maxFrames) {
+        long position = readPosition.get();
+        int frames = (int) Math.min(writePosition.get() - position, Math.min(maxFrames, interleaved.length / channels));
+
+        for (int i = 0; i < frames; i++) {
+            int source = (int) ((position + i) & mask) * channels;
+            int target = i * channels;
+            for (int c = 0; c < channels; c++)
+                interleaved[target + c] = samples.get(source + c);
+        }
+
+        readPosition.lazySet(position + frames);
+        return frames;
+    }
+
+    private boolean reserve(long position, int frames) {
+        if (capacity - (position - readPosition.get()) < frames) {
+            overruns.incrementAndGet();
+            droppedFrames.addAndGet(frames);
+            return false;
+        }
+        return true;
+    }
+}
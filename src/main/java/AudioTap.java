@@ -0,0 +1,48 @@
+/**
+ * Audio processor copying selected channels of one callback stream into an
+ * {@link AudioRingBuffer}, for a consumer thread to process outside of the
+ * real time callback. Insert streams (VBVMR_CBCOMMAND_BUFFER_IN and
+ * VBVMR_CBCOMMAND_BUFFER_OUT) are passed through unchanged.
+ */
+public class AudioTap implements AudioProcessor {
+    private final AudioRingBuffer ringBuffer;
+    private final int command;
+    private final int[] channels;
+    private final boolean outputs;
+
+    /**
+     * @param ringBuffer Ring buffer to write to
+     * @param command    Stream to record: VBVMR_CBCOMMAND_BUFFER_IN,
+     *                    VBVMR_CBCOMMAND_BUFFER_OUT or
+     *                    VBVMR_CBCOMMAND_BUFFER_MAIN
+     * @param channels   Callback buffer channels to record, one per ring buffer
+     *                    channel
+     * @param outputs    Whether to record output (audiobuffer_w) rather than
+     *                    input (audiobuffer_r) channels
+     */
+    public AudioTap(AudioRingBuffer ringBuffer, int command, int[] channels, boolean outputs) {
+        if (channels.length != ringBuffer.getChannels())
+            throw new IllegalArgumentException("Expected " + ringBuffer.getChannels() + " channels, got " + channels.length);
+
+        this.ringBuffer = ringBuffer;
+        this.command = command;
+        this.channels = channels.clone();
+        this.outputs = outputs;
+    }
+
+    public AudioRingBuffer getRingBuffer() {
+        return ringBuffer;
+    }
+
+    @Override
+    public void process(int command, AudioBuffer buffer) {
+        if (command == this.command)
+            ringBuffer.write(buffer, channels, outputs);
+
+        if (command == VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_IN || command == VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_OUT) {
+            int count = Math.min(buffer.getInputCount(), buffer.getOutputCount());
+            for (int channel = 0; channel < count; channel++)
+                buffer.getOutput(channel).put(buffer.getInput(channel));
+        }
+    }
+}
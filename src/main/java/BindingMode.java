@@ -0,0 +1,16 @@
+/**
+ * How {@link Voicemeeter#init(boolean, String, BindingMode)} binds the
+ * VoicemeeterRemote library.
+ */
+public enum BindingMode {
+    /**
+     * A JNA interface proxy, which resolves and converts every call through
+     * reflection.
+     */
+    INTERFACE,
+    /**
+     * JNA direct mapping through {@link DirectVoicemeeter}, which binds native
+     * methods once and avoids the proxy on every call.
+     */
+    DIRECT
+}
@@ -0,0 +1,7 @@
+/**
+ * Receives connection changes from a {@link ConnectionSupervisor}. Listeners
+ * are called on the thread that detected the change.
+ */
+public interface ConnectionListener {
+    void connectionChanged(boolean connected);
+}
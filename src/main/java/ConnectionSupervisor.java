@@ -0,0 +1,375 @@
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps a session with Voicemeeter alive across restarts of the mixer. Install
+ * it in front of the library before logging in:
+ *
+ * <pre>
+ *     Voicemeeter.init();
+ *     Voicemeeter.superviseConnection();
+ *     Voicemeeter.login();
+ * </pre>
+ *
+ * A -2 "no server" result from any function marks the session disconnected.
+ * While disconnected, calls that need the server fail fast with -2 without
+ * reaching the library, and a background thread logs in again with bounded
+ * exponential backoff, optionally starting Voicemeeter. Once the server
+ * answers again, the parameter writes made during the session are replayed so
+ * the mixer returns to the state the application asked for. One-shot actions
+ * are not replayed: Command.*, VBAN.*, the recorder transport (play, stop,
+ * record, pause, ff, rew and load) and fades. Neither are string values that
+ * can not be quoted in a script.
+ *
+ * Logging in while Voicemeeter is closed succeeds through the supervisor
+ * instead of failing, and the session connects once Voicemeeter is started.
+ * Recording writes decodes the parameter name of every write, so code that
+ * does not need the replay should not install a supervisor on hot write paths.
+ */
+public class ConnectionSupervisor extends ForwardingVoicemeeterInstance {
+    public static final long DEFAULT_MIN_BACKOFF_MILLIS = 250;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 10000;
+
+    private static final Set<NativeFunction> SERVER_FUNCTIONS = EnumSet.of(
+            NativeFunction.GET_VOICEMEETER_TYPE,
+            NativeFunction.GET_VOICEMEETER_VERSION,
+            NativeFunction.IS_PARAMETERS_DIRTY,
+            NativeFunction.GET_PARAMETER_FLOAT,
+            NativeFunction.GET_PARAMETER_STRING_A,
+            NativeFunction.GET_PARAMETER_STRING_W,
+            NativeFunction.GET_LEVEL,
+            NativeFunction.GET_MIDI_MESSAGE,
+            NativeFunction.SET_PARAMETER_FLOAT,
+            NativeFunction.SET_PARAMETER_STRING_A,
+            NativeFunction.SET_PARAMETER_STRING_W,
+            NativeFunction.SET_PARAMETERS,
+            NativeFunction.SET_PARAMETERS_W);
+
+    // Parameters that trigger an action rather than hold state, lower case
+    private static final String[] ACTION_PREFIXES = {"command.", "vban."};
+    private static final String[] RECORDER_ACTIONS = {
+            "recorder.play", "recorder.stop", "recorder.record", "recorder.pause", "recorder.ff", "recorder.rew",
+            "recorder.load"
+    };
+    private static final String[] ACTION_SUFFIXES = {".fadeto", ".fadeby"};
+
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int runType;
+    private final Map<String, String> desiredWrites = new LinkedHashMap<>();
+    private final List<ConnectionListener> listeners = new CopyOnWriteArrayList<>();
+    private final Pointer probe = Voicemeeter.getPointer(4);
+
+    private volatile boolean connected = true;
+    private volatile boolean loggedIn;
+    private volatile long reconnectAttempts;
+    private long writes;
+    private Thread thread;
+
+    public ConnectionSupervisor(VoicemeeterInstance delegate) {
+        this(delegate, DEFAULT_MIN_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, 0);
+    }
+
+    /**
+     * @param runType Voicemeeter type to start with VBVMR_RunVoicemeeter when
+     *                the server is gone, or 0 to wait for it to be started
+     */
+    public ConnectionSupervisor(VoicemeeterInstance delegate, long minBackoffMillis, long maxBackoffMillis, int runType) {
+        super(delegate);
+        if (minBackoffMillis <= 0 || maxBackoffMillis < minBackoffMillis)
+            throw new IllegalArgumentException("Invalid backoff " + minBackoffMillis + "-" + maxBackoffMillis);
+
+        this.minBackoffMillis = minBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.runType = runType;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * @return The number of login attempts made to reconnect
+     */
+    public long getReconnectAttempts() {
+        return reconnectAttempts;
+    }
+
+    public void addListener(ConnectionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ConnectionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Forgets the writes recorded so far, so they are not replayed on the next
+     * reconnect.
+     */
+    public synchronized void clearDesiredWrites() {
+        desiredWrites.clear();
+    }
+
+    @Override
+    protected long before(NativeFunction function) {
+        return !connected && SERVER_FUNCTIONS.contains(function) ? REJECT : 0;
+    }
+
+    @Override
+    protected int rejected(NativeFunction function) {
+        return -2;
+    }
+
+    @Override
+    protected int after(NativeFunction function, long token, int result) {
+        switch (function) {
+            case LOGIN:
+                if (result == 0 || result == 1) {
+                    loggedIn = true;
+                    setConnected(result == 0);
+                    // Voicemeeter is not open; the session connects once it is
+                    return 0;
+                }
+                break;
+            case LOGOUT:
+                loggedIn = false;
+                stopReconnecting();
+                break;
+            default:
+                if (result == -2 && token != REJECT && SERVER_FUNCTIONS.contains(function))
+                    setConnected(false);
+                break;
+        }
+        return result;
+    }
+
+    @Override
+    public int VBVMR_SetParameterFloat(Pointer paramName, float value) {
+        int result = super.VBVMR_SetParameterFloat(paramName, value);
+        if (result == 0 || result == -2)
+            record(paramName.getString(0), ParameterBatcher.formatValue(value));
+        return result;
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringA(Pointer paramName, Pointer string) {
+        int result = super.VBVMR_SetParameterStringA(paramName, string);
+        if (result == 0 || result == -2)
+            recordString(paramName.getString(0), string.getString(0));
+        return result;
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringW(Pointer paramName, Pointer string) {
+        int result = super.VBVMR_SetParameterStringW(paramName, string);
+        if (result == 0 || result == -2)
+            recordString(paramName.getString(0), string.getWideString(0));
+        return result;
+    }
+
+    @Override
+    public int VBVMR_SetParameters(Pointer paramScript) {
+        int result = super.VBVMR_SetParameters(paramScript);
+        if (result == 0 || result == -2)
+            recordScript(paramScript.getString(0));
+        return result;
+    }
+
+    @Override
+    public int VBVMR_SetParametersW(Pointer paramScript) {
+        int result = super.VBVMR_SetParametersW(paramScript);
+        if (result == 0 || result == -2)
+            recordScript(paramScript.getWideString(0));
+        return result;
+    }
+
+    /**
+     * Stops reconnecting until the next login or detected disconnect.
+     */
+    public void stopReconnecting() {
+        Thread stopping;
+        synchronized (this) {
+            stopping = thread;
+            thread = null;
+        }
+        if (stopping == null)
+            return;
+
+        stopping.interrupt();
+        // Called from a listener on the reconnect thread, which exits by itself
+        if (stopping == Thread.currentThread())
+            return;
+        try {
+            stopping.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void record(String parameterName, String value) {
+        String key = parameterName.trim().toLowerCase(Locale.ROOT);
+        if (isAction(key))
+            return;
+
+        writes++;
+        desiredWrites.put(key, parameterName.trim() + '=' + value);
+    }
+
+    private void recordString(String parameterName, String value) {
+        if (ParameterBatcher.isQuotable(value))
+            record(parameterName, '"' + value + '"');
+    }
+
+    private void recordScript(String script) {
+        ParameterScript.parse(script, (name, value) -> {
+            if (isNumber(value))
+                record(name, value);
+            else
+                recordString(name, value);
+            return true;
+        });
+    }
+
+    private static boolean isAction(String key) {
+        for (String prefix : ACTION_PREFIXES) {
+            if (key.startsWith(prefix))
+                return true;
+        }
+        for (String action : RECORDER_ACTIONS) {
+            if (key.equals(action))
+                return true;
+        }
+        for (String suffix : ACTION_SUFFIXES) {
+            if (key.endsWith(suffix))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Float.parseFloat(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void setConnected(boolean connected) {
+        boolean changed;
+        synchronized (this) {
+            changed = this.connected != connected;
+            this.connected = connected;
+            // The reconnect thread is done, so a new disconnect starts another
+            if (connected && thread == Thread.currentThread())
+                thread = null;
+            if (!connected && loggedIn)
+                startReconnecting();
+        }
+
+        if (changed) {
+            for (ConnectionListener listener : listeners)
+                listener.connectionChanged(connected);
+        }
+    }
+
+    private synchronized void startReconnecting() {
+        if (thread != null)
+            return;
+
+        thread = new Thread(this::reconnect, "Voicemeeter connection supervisor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void reconnect() {
+        try {
+            long backoff = minBackoffMillis;
+            boolean started = false;
+
+            while (!Thread.currentThread().isInterrupted() && loggedIn) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                reconnectAttempts++;
+                VoicemeeterInstance delegate = getDelegate();
+                delegate.VBVMR_Logout();
+                int login = delegate.VBVMR_Login();
+                if (login == 1 && runType != 0 && !started) {
+                    delegate.VBVMR_RunVoicemeeter(runType);
+                    started = true;
+                }
+
+                if ((login == 0 || login == 1) && delegate.VBVMR_GetVoicemeeterType(probe) == 0) {
+                    long replayed = replay();
+                    if (replayed >= 0) {
+                        setConnected(true);
+                        // Writes rejected while the replay was running
+                        if (replayed != writes() && replay() < 0)
+                            setConnected(false);
+                        return;
+                    }
+                }
+
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        } finally {
+            synchronized (this) {
+                if (thread == Thread.currentThread())
+                    thread = null;
+            }
+        }
+    }
+
+    private synchronized long writes() {
+        return writes;
+    }
+
+    /**
+     * Sends the recorded writes to the delegate in scripts below the
+     * VBVMR_SetParameters limit.
+     *
+     * @return The write count covered by the replay, or -1 if the server was
+     *          gone again
+     */
+    private long replay() {
+        String[] assignments;
+        long replayed;
+        synchronized (this) {
+            assignments = desiredWrites.values().toArray(new String[0]);
+            replayed = writes;
+        }
+        if (assignments.length == 0)
+            return replayed;
+
+        Pointer scriptBuffer = Voicemeeter.getPointer((ParameterBatcher.MAX_SCRIPT_LENGTH + 1) * Native.WCHAR_SIZE);
+        StringBuilder script = new StringBuilder();
+        for (String assignment : assignments) {
+            if (script.length() > 0 && script.length() + 1 + assignment.length() > ParameterBatcher.MAX_SCRIPT_LENGTH
+                    && !send(script, scriptBuffer))
+                return -1;
+            if (script.length() > 0)
+                script.append(';');
+            script.append(assignment);
+        }
+        return send(script, scriptBuffer) ? replayed : -1;
+    }
+
+    private boolean send(StringBuilder script, Pointer scriptBuffer) {
+        scriptBuffer.setWideString(0, script.toString());
+        script.setLength(0);
+        return getDelegate().VBVMR_SetParametersW(scriptBuffer) != -2;
+    }
+}
@@ -0,0 +1,130 @@
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the audio input and output devices known to Voicemeeter,
+ * enumerated once and indexed by name, hardware ID and device type
+ * (VBVMR_DEVTYPE_*) for constant time lookups.
+ *
+ * A catalog never changes once loaded. The descriptions it returns are copies,
+ * so changing them does not affect the catalog. {@link #refresh()} returns a
+ * new catalog when the device counts reported by Voicemeeter have changed.
+ */
+public class DeviceCatalog {
+    private final Devices inputs;
+    private final Devices outputs;
+
+    private DeviceCatalog(Devices inputs, Devices outputs) {
+        this.inputs = inputs;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Enumerates every input and output device through one set of reusable
+     * native buffers.
+     */
+    public static DeviceCatalog load() {
+        Pointer type = Voicemeeter.getPointer(4);
+        Pointer name = Voicemeeter.getPointer(Voicemeeter.DEVICE_STRING_LENGTH * Native.WCHAR_SIZE);
+        Pointer hardwareId = Voicemeeter.getPointer(Voicemeeter.DEVICE_STRING_LENGTH * Native.WCHAR_SIZE);
+
+        return new DeviceCatalog(
+                new Devices(true, type, name, hardwareId),
+                new Devices(false, type, name, hardwareId));
+    }
+
+    /**
+     * @return This catalog if the device counts are unchanged, otherwise a
+     *          newly loaded catalog
+     */
+    public DeviceCatalog refresh() {
+        if (Voicemeeter.getNumberOfAudioDevices(true) == inputs.list.size()
+                && Voicemeeter.getNumberOfAudioDevices(false) == outputs.list.size())
+            return this;
+        return load();
+    }
+
+    /**
+     * @return The devices in Voicemeeter's order, indexed like the
+     *          VBVMR_*_GetDeviceDesc functions
+     */
+    public List<Voicemeeter.DeviceDescription> getDevices(boolean areInputDevices) {
+        return copy(devices(areInputDevices).list);
+    }
+
+    public Voicemeeter.DeviceDescription getDevice(int index, boolean isInputDevice) {
+        return copy(devices(isInputDevice).list.get(index));
+    }
+
+    /**
+     * @return The first device with the name, or null if there is none
+     */
+    public Voicemeeter.DeviceDescription findByName(String name, boolean isInputDevice) {
+        return copy(devices(isInputDevice).byName.get(name));
+    }
+
+    /**
+     * @return The device with the hardware ID, or null if there is none
+     */
+    public Voicemeeter.DeviceDescription findByHardwareId(String hardwareId, boolean isInputDevice) {
+        return copy(devices(isInputDevice).byHardwareId.get(hardwareId));
+    }
+
+    /**
+     * @param type Device type, one of the VBVMR_DEVTYPE_* constants
+     */
+    public List<Voicemeeter.DeviceDescription> getDevicesByType(int type, boolean areInputDevices) {
+        List<Voicemeeter.DeviceDescription> devices = devices(areInputDevices).byType.get(type);
+        return devices == null ? Collections.<Voicemeeter.DeviceDescription>emptyList() : copy(devices);
+    }
+
+    private Devices devices(boolean inputs) {
+        return inputs ? this.inputs : this.outputs;
+    }
+
+    private static List<Voicemeeter.DeviceDescription> copy(List<Voicemeeter.DeviceDescription> devices) {
+        List<Voicemeeter.DeviceDescription> copies = new ArrayList<>(devices.size());
+        for (Voicemeeter.DeviceDescription device : devices)
+            copies.add(copy(device));
+        return Collections.unmodifiableList(copies);
+    }
+
+    private static Voicemeeter.DeviceDescription copy(Voicemeeter.DeviceDescription device) {
+        if (device == null)
+            return null;
+
+        Voicemeeter.DeviceDescription copy = new Voicemeeter.DeviceDescription();
+        copy.setType(device.getType());
+        copy.setName(device.getName());
+        copy.setHardwareId(device.getHardwareId());
+        return copy;
+    }
+
+    private static class Devices {
+        private final List<Voicemeeter.DeviceDescription> list;
+        private final Map<String, Voicemeeter.DeviceDescription> byName = new HashMap<>();
+        private final Map<String, Voicemeeter.DeviceDescription> byHardwareId = new HashMap<>();
+        private final Map<Integer, List<Voicemeeter.DeviceDescription>> byType = new HashMap<>();
+
+        private Devices(boolean inputs, Pointer type, Pointer name, Pointer hardwareId) {
+            int count = Voicemeeter.getNumberOfAudioDevices(inputs);
+            List<Voicemeeter.DeviceDescription> list = new ArrayList<>(count);
+
+            for (int index = 0; index < count; index++) {
+                Voicemeeter.DeviceDescription device = Voicemeeter.getOutputDeviceDescriptionW(index, inputs, type, name, hardwareId);
+                list.add(device);
+                byName.putIfAbsent(device.getName(), device);
+                byHardwareId.putIfAbsent(device.getHardwareId(), device);
+                byType.computeIfAbsent(device.getType(), t -> new ArrayList<>()).add(device);
+            }
+
+            this.list = list;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import com.sun.jna.win32.StdCallLibrary;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@link VoicemeeterInstance} bound to the VoicemeeterRemote library through
+ * JNA direct mapping. The VBVMR_* functions are registered once as static
+ * native methods, so calls skip the reflective proxy, method lookup and
+ * argument conversion of an interface binding.
+ *
+ * Direct mapping binds a class to one library for the lifetime of the JVM, so
+ * only the first library loaded is used.
+ */
+public class DirectVoicemeeter implements VoicemeeterInstance {
+    private static DirectVoicemeeter instance;
+
+    private DirectVoicemeeter() {
+    }
+
+    /**
+     * Binds the library at the path, or returns the instance bound by a
+     * previous call.
+     */
+    public static synchronized DirectVoicemeeter load(String vmWindowsPath) {
+        if (instance == null) {
+            // Stdcall only differs from the default convention on 32 bit Windows
+            Map<String, Object> options = Platform.isWindows() && !Platform.is64Bit()
+                    ? Collections.singletonMap(Library.OPTION_CALLING_CONVENTION, StdCallLibrary.STDCALL_CONVENTION)
+                    : Collections.emptyMap();
+            Native.register(Functions.class, NativeLibrary.getInstance(vmWindowsPath, options));
+            instance = new DirectVoicemeeter();
+        }
+        return instance;
+    }
+
+    @Override
+    public int VBVMR_Login() {
+        return Functions.VBVMR_Login();
+    }
+
+    @Override
+    public int VBVMR_Logout() {
+        return Functions.VBVMR_Logout();
+    }
+
+    @Override
+    public int VBVMR_RunVoicemeeter(int type) {
+        return Functions.VBVMR_RunVoicemeeter(type);
+    }
+
+    @Override
+    public int VBVMR_GetVoicemeeterType(Pointer type) {
+        return Functions.VBVMR_GetVoicemeeterType(type);
+    }
+
+    @Override
+    public int VBVMR_GetVoicemeeterVersion(Pointer version) {
+        return Functions.VBVMR_GetVoicemeeterVersion(version);
+    }
+
+    @Override
+    public int VBVMR_IsParametersDirty() {
+        return Functions.VBVMR_IsParametersDirty();
+    }
+
+    @Override
+    public int VBVMR_GetParameterFloat(Pointer paramName, Pointer value) {
+        return Functions.VBVMR_GetParameterFloat(paramName, value);
+    }
+
+    @Override
+    public int VBVMR_GetParameterStringA(Pointer paramName, Pointer string) {
+        return Functions.VBVMR_GetParameterStringA(paramName, string);
+    }
+
+    @Override
+    public int VBVMR_GetParameterStringW(Pointer paramName, Pointer string) {
+        return Functions.VBVMR_GetParameterStringW(paramName, string);
+    }
+
+    @Override
+    public int VBVMR_GetLevel(int type, int channel, Pointer value) {
+        return Functions.VBVMR_GetLevel(type, channel, value);
+    }
+
+    @Override
+    public int VBVMR_GetMidiMessage(Pointer midiBuffer, int byteMax) {
+        return Functions.VBVMR_GetMidiMessage(midiBuffer, byteMax);
+    }
+
+    @Override
+    public int VBVMR_SetParameterFloat(Pointer paramName, float value) {
+        return Functions.VBVMR_SetParameterFloat(paramName, value);
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringA(Pointer paramName, Pointer string) {
+        return Functions.VBVMR_SetParameterStringA(paramName, string);
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringW(Pointer paramName, Pointer string) {
+        return Functions.VBVMR_SetParameterStringW(paramName, string);
+    }
+
+    @Override
+    public int VBVMR_SetParameters(Pointer paramScript) {
+        return Functions.VBVMR_SetParameters(paramScript);
+    }
+
+    @Override
+    public int VBVMR_SetParametersW(Pointer paramScript) {
+        return Functions.VBVMR_SetParametersW(paramScript);
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceNumber() {
+        return Functions.VBVMR_Output_GetDeviceNumber();
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return Functions.VBVMR_Output_GetDeviceDescA(index, type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return Functions.VBVMR_Output_GetDeviceDescW(index, type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceNumber() {
+        return Functions.VBVMR_Input_GetDeviceNumber();
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return Functions.VBVMR_Input_GetDeviceDescA(index, type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return Functions.VBVMR_Input_GetDeviceDescW(index, type, deviceName, hardwareId);
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackRegister(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, byte[] clientName) {
+        return Functions.VBVMR_AudioCallbackRegister(mode, callback, user, clientName);
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackStart() {
+        return Functions.VBVMR_AudioCallbackStart();
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackStop() {
+        return Functions.VBVMR_AudioCallbackStop();
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackUnregister() {
+        return Functions.VBVMR_AudioCallbackUnregister();
+    }
+
+    private static class Functions {
+        static native int VBVMR_Login();
+        static native int VBVMR_Logout();
+        static native int VBVMR_RunVoicemeeter(int type);
+        static native int VBVMR_GetVoicemeeterType(Pointer type);
+        static native int VBVMR_GetVoicemeeterVersion(Pointer version);
+        static native int VBVMR_IsParametersDirty();
+        static native int VBVMR_GetParameterFloat(Pointer paramName, Pointer value);
+        static native int VBVMR_GetParameterStringA(Pointer paramName, Pointer string);
+        static native int VBVMR_GetParameterStringW(Pointer paramName, Pointer string);
+        static native int VBVMR_GetLevel(int type, int channel, Pointer value);
+        static native int VBVMR_GetMidiMessage(Pointer midiBuffer, int byteMax);
+        static native int VBVMR_SetParameterFloat(Pointer paramName, float value);
+        static native int VBVMR_SetParameterStringA(Pointer paramName, Pointer string);
+        static native int VBVMR_SetParameterStringW(Pointer paramName, Pointer string);
+        static native int VBVMR_SetParameters(Pointer paramScript);
+        static native int VBVMR_SetParametersW(Pointer paramScript);
+        static native int VBVMR_Output_GetDeviceNumber();
+        static native int VBVMR_Output_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId);
+        static native int VBVMR_Output_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId);
+        static native int VBVMR_Input_GetDeviceNumber();
+        static native int VBVMR_Input_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId);
+        static native int VBVMR_Input_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId);
+        static native int VBVMR_AudioCallbackRegister(int mode, VoicemeeterInstance.T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, byte[] clientName);
+        static native int VBVMR_AudioCallbackStart();
+        static native int VBVMR_AudioCallbackStop();
+        static native int VBVMR_AudioCallbackUnregister();
+    }
+}
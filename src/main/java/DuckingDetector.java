@@ -0,0 +1,192 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Detects activity on one or more trigger strips and ducks target gains while
+ * they are active, typically lowering a music bus while a microphone is used:
+ *
+ * <pre>
+ *     LevelMeter meter = new LevelMeter(VoicemeeterType.BANANA, 50);
+ *     DuckingDetector ducker = new DuckingDetector(VoicemeeterType.BANANA, -40, 50, 500, 800);
+ *     ducker.addTrigger(0);
+ *     ducker.addTarget("Bus[3].gain", 0, -15);
+ *     meter.addListener(ducker);
+ *     meter.start();
+ * </pre>
+ *
+ * Detection runs on the meter thread on every published snapshot, reading the
+ * pre-fader input levels (type 0) of the trigger strips, so a strip is
+ * detected one metering tick after it crosses the threshold and no thread is
+ * needed per detector. A strip stays active for the hold time after its level
+ * last exceeded the threshold. The ducking envelope then moves the targets
+ * towards the ducked gain over the attack time and back over the release time,
+ * and changed target gains are written in one batch per tick. Failed writes
+ * are retried on the next tick, and the first failure of a run is passed to
+ * the error handler, see {@link Voicemeeter#setErrorHandler(Consumer)}.
+ *
+ * Triggers and targets must be added before the detector receives snapshots.
+ */
+public class DuckingDetector implements MeterListener {
+    // Smallest gain change written to Voicemeeter, in dB
+    private static final float GAIN_RESOLUTION = 0.01f;
+
+    private final VoicemeeterType type;
+    private final float threshold;
+    private final float attackSeconds;
+    private final float holdSeconds;
+    private final float releaseSeconds;
+    private final ParameterBatcher batcher = new ParameterBatcher();
+
+    private int[] triggers = new int[0];
+    private float[] holdRemaining = new float[0];
+    private boolean[] triggerActive = new boolean[0];
+
+    private String[] targets = new String[0];
+    private float[] normalGains = new float[0];
+    private float[] duckedGains = new float[0];
+    private float[] writtenGains = new float[0];
+
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+    private volatile boolean active;
+    private volatile float duck;
+    private long lastTimestamp;
+    private boolean failing;
+
+    /**
+     * @param type           Voicemeeter edition, for the strip channel layout
+     * @param thresholdDb    Level above which a trigger strip is active
+     * @param attackMillis   Time to move the targets to their ducked gains
+     * @param holdMillis     Time a strip stays active after falling below the
+     *                        threshold
+     * @param releaseMillis  Time to move the targets back to their normal gains
+     */
+    public DuckingDetector(VoicemeeterType type, float thresholdDb, long attackMillis, long holdMillis, long releaseMillis) {
+        if (attackMillis < 0 || holdMillis < 0 || releaseMillis < 0)
+            throw new IllegalArgumentException("Invalid ducking times " + attackMillis + "/" + holdMillis + "/" + releaseMillis);
+
+        this.type = type;
+        this.threshold = (float) Math.pow(10, thresholdDb / 20);
+        this.attackSeconds = attackMillis / 1000.0f;
+        this.holdSeconds = holdMillis / 1000.0f;
+        this.releaseSeconds = releaseMillis / 1000.0f;
+    }
+
+    /**
+     * @param strip Zero-based strip whose activity ducks the targets
+     */
+    public void addTrigger(int strip) {
+        if (strip < 0 || strip >= type.getStrips())
+            throw new IndexOutOfBoundsException("Strip " + strip + " is out of range for " + type);
+
+        int size = triggers.length;
+        triggers = Arrays.copyOf(triggers, size + 1);
+        holdRemaining = Arrays.copyOf(holdRemaining, size + 1);
+        triggerActive = Arrays.copyOf(triggerActive, size + 1);
+        triggers[size] = strip;
+    }
+
+    /**
+     * @param parameterName A gain parameter, such as Bus[3].gain
+     * @param normalDb      Gain while no trigger is active
+     * @param duckedDb      Gain while a trigger is active
+     */
+    public void addTarget(String parameterName, float normalDb, float duckedDb) {
+        int size = targets.length;
+        targets = Arrays.copyOf(targets, size + 1);
+        normalGains = Arrays.copyOf(normalGains, size + 1);
+        duckedGains = Arrays.copyOf(duckedGains, size + 1);
+        writtenGains = Arrays.copyOf(writtenGains, size + 1);
+        targets[size] = parameterName;
+        normalGains[size] = normalDb;
+        duckedGains[size] = duckedDb;
+        writtenGains[size] = Float.NaN;
+    }
+
+    /**
+     * Replaces the library-wide error handler for this detector.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * @return Whether any trigger strip is active
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return The ducking envelope, from 0 (normal gains) to 1 (ducked gains)
+     */
+    public float getDuckAmount() {
+        return duck;
+    }
+
+    @Override
+    public void meterUpdated(MeterSnapshot snapshot) {
+        long timestamp = snapshot.getTimestamp();
+        float dt = lastTimestamp == 0 ? 0 : (timestamp - lastTimestamp) / 1e9f;
+        lastTimestamp = timestamp;
+
+        boolean active = false;
+        for (int i = 0; i < triggers.length; i++) {
+            int offset = type.getStripChannelOffset(triggers[i]);
+            int channels = type.getStripChannels(triggers[i]);
+
+            float level = 0;
+            for (int channel = offset; channel < offset + channels; channel++)
+                level = Math.max(level, snapshot.getLevel(LevelSnapshot.INPUT_PRE_FADER, channel));
+
+            if (level > threshold) {
+                holdRemaining[i] = holdSeconds;
+                triggerActive[i] = true;
+            } else if (triggerActive[i] && (holdRemaining[i] -= dt) <= 0) {
+                triggerActive[i] = false;
+            }
+            active |= triggerActive[i];
+        }
+        this.active = active;
+
+        float duck = this.duck;
+        if (active)
+            duck = attackSeconds == 0 ? 1 : Math.min(duck + dt / attackSeconds, 1);
+        else
+            duck = releaseSeconds == 0 ? 0 : Math.max(duck - dt / releaseSeconds, 0);
+        this.duck = duck;
+
+        write(duck);
+    }
+
+    private void write(float duck) {
+        // Small steps are skipped while moving, but the end gains are exact
+        boolean settled = duck == 0 || duck == 1;
+
+        boolean changed = false;
+        for (int i = 0; i < targets.length; i++) {
+            float gain = normalGains[i] + (duckedGains[i] - normalGains[i]) * duck;
+            float step = Math.abs(gain - writtenGains[i]);
+            if (step == 0 || (step < GAIN_RESOLUTION && !settled))
+                continue;
+
+            batcher.set(targets[i], gain);
+            writtenGains[i] = gain;
+            changed = true;
+        }
+
+        if (!changed)
+            return;
+        try {
+            batcher.flush();
+            failing = false;
+        } catch (VoicemeeterException e) {
+            // Write every target again on the next tick
+            Arrays.fill(writtenGains, Float.NaN);
+            if (!failing)
+                errorHandler.accept(e);
+            failing = true;
+        }
+    }
+}
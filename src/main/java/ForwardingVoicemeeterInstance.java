@@ -0,0 +1,237 @@
+import com.sun.jna.Pointer;
+
+/**
+ * {@link VoicemeeterInstance} that forwards every call to another instance,
+ * with hooks around each call for decorators such as
+ * {@link InstrumentedVoicemeeterInstance}. Subclasses override
+ * {@link #before(NativeFunction)} and
+ * {@link #after(NativeFunction, long, int)} rather than the VBVMR_* methods.
+ */
+public class ForwardingVoicemeeterInstance implements VoicemeeterInstance {
+    /**
+     * Token returned by {@link #before(NativeFunction)} to skip the delegate.
+     */
+    protected static final long REJECT = Long.MIN_VALUE;
+
+    private final VoicemeeterInstance delegate;
+
+    public ForwardingVoicemeeterInstance(VoicemeeterInstance delegate) {
+        this.delegate = delegate;
+    }
+
+    public VoicemeeterInstance getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Called before a function is forwarded.
+     *
+     * @return A token handed back to {@link #after(NativeFunction, long, int)},
+     *          or {@link #REJECT} to return the result of
+     *          {@link #rejected(NativeFunction)} without calling the delegate
+     */
+    protected long before(NativeFunction function) {
+        return 0;
+    }
+
+    /**
+     * @return The result of a call rejected by {@link #before(NativeFunction)}
+     */
+    protected int rejected(NativeFunction function) {
+        return -1;
+    }
+
+    /**
+     * Called after a function returns.
+     *
+     * @param token  The value returned by {@link #before(NativeFunction)}
+     * @param result The value returned by the delegate, or by
+     *               {@link #rejected(NativeFunction)}
+     * @return The value to return to the caller
+     */
+    protected int after(NativeFunction function, long token, int result) {
+        return result;
+    }
+
+    @Override
+    public int VBVMR_Login() {
+        long token = before(NativeFunction.LOGIN);
+        int result = token == REJECT ? rejected(NativeFunction.LOGIN) : delegate.VBVMR_Login();
+        return after(NativeFunction.LOGIN, token, result);
+    }
+
+    @Override
+    public int VBVMR_Logout() {
+        long token = before(NativeFunction.LOGOUT);
+        int result = token == REJECT ? rejected(NativeFunction.LOGOUT) : delegate.VBVMR_Logout();
+        return after(NativeFunction.LOGOUT, token, result);
+    }
+
+    @Override
+    public int VBVMR_RunVoicemeeter(int type) {
+        long token = before(NativeFunction.RUN_VOICEMEETER);
+        int result = token == REJECT ? rejected(NativeFunction.RUN_VOICEMEETER) : delegate.VBVMR_RunVoicemeeter(type);
+        return after(NativeFunction.RUN_VOICEMEETER, token, result);
+    }
+
+    @Override
+    public int VBVMR_GetVoicemeeterType(Pointer type) {
+        long token = before(NativeFunction.GET_VOICEMEETER_TYPE);
+        int result = token == REJECT ? rejected(NativeFunction.GET_VOICEMEETER_TYPE) : delegate.VBVMR_GetVoicemeeterType(type);
+        return after(NativeFunction.GET_VOICEMEETER_TYPE, token, result);
+    }
+
+    @Override
+    public int VBVMR_GetVoicemeeterVersion(Pointer version) {
+        long token = before(NativeFunction.GET_VOICEMEETER_VERSION);
+        int result = token == REJECT ? rejected(NativeFunction.GET_VOICEMEETER_VERSION) : delegate.VBVMR_GetVoicemeeterVersion(version);
+        return after(NativeFunction.GET_VOICEMEETER_VERSION, token, result);
+    }
+
+    @Override
+    public int VBVMR_IsParametersDirty() {
+        long token = before(NativeFunction.IS_PARAMETERS_DIRTY);
+        int result = token == REJECT ? rejected(NativeFunction.IS_PARAMETERS_DIRTY) : delegate.VBVMR_IsParametersDirty();
+        return after(NativeFunction.IS_PARAMETERS_DIRTY, token, result);
+    }
+
+    @Override
+    public int VBVMR_GetParameterFloat(Pointer paramName, Pointer value) {
+        long token = before(NativeFunction.GET_PARAMETER_FLOAT);
+        int result = token == REJECT ? rejected(NativeFunction.GET_PARAMETER_FLOAT) : delegate.VBVMR_GetParameterFloat(paramName, value);
+        return after(NativeFunction.GET_PARAMETER_FLOAT, token, result);
+    }
+
+    @Override
+    public int VBVMR_GetParameterStringA(Pointer paramName, Pointer string) {
+        long token = before(NativeFunction.GET_PARAMETER_STRING_A);
+        int result = token == REJECT ? rejected(NativeFunction.GET_PARAMETER_STRING_A) : delegate.VBVMR_GetParameterStringA(paramName, string);
+        return after(NativeFunction.GET_PARAMETER_STRING_A, token, result);
+    }
+
+    @Override
+    public int VBVMR_GetParameterStringW(Pointer paramName, Pointer string) {
+        long token = before(NativeFunction.GET_PARAMETER_STRING_W);
+        int result = token == REJECT ? rejected(NativeFunction.GET_PARAMETER_STRING_W) : delegate.VBVMR_GetParameterStringW(paramName, string);
+        return after(NativeFunction.GET_PARAMETER_STRING_W, token, result);
+    }
+
+    @Override
+    public int VBVMR_GetLevel(int type, int channel, Pointer value) {
+        long token = before(NativeFunction.GET_LEVEL);
+        int result = token == REJECT ? rejected(NativeFunction.GET_LEVEL) : delegate.VBVMR_GetLevel(type, channel, value);
+        return after(NativeFunction.GET_LEVEL, token, result);
+    }
+
+    @Override
+    public int VBVMR_GetMidiMessage(Pointer midiBuffer, int byteMax) {
+        long token = before(NativeFunction.GET_MIDI_MESSAGE);
+        int result = token == REJECT ? rejected(NativeFunction.GET_MIDI_MESSAGE) : delegate.VBVMR_GetMidiMessage(midiBuffer, byteMax);
+        return after(NativeFunction.GET_MIDI_MESSAGE, token, result);
+    }
+
+    @Override
+    public int VBVMR_SetParameterFloat(Pointer paramName, float value) {
+        long token = before(NativeFunction.SET_PARAMETER_FLOAT);
+        int result = token == REJECT ? rejected(NativeFunction.SET_PARAMETER_FLOAT) : delegate.VBVMR_SetParameterFloat(paramName, value);
+        return after(NativeFunction.SET_PARAMETER_FLOAT, token, result);
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringA(Pointer paramName, Pointer string) {
+        long token = before(NativeFunction.SET_PARAMETER_STRING_A);
+        int result = token == REJECT ? rejected(NativeFunction.SET_PARAMETER_STRING_A) : delegate.VBVMR_SetParameterStringA(paramName, string);
+        return after(NativeFunction.SET_PARAMETER_STRING_A, token, result);
+    }
+
+    @Override
+    public int VBVMR_SetParameterStringW(Pointer paramName, Pointer string) {
+        long token = before(NativeFunction.SET_PARAMETER_STRING_W);
+        int result = token == REJECT ? rejected(NativeFunction.SET_PARAMETER_STRING_W) : delegate.VBVMR_SetParameterStringW(paramName, string);
+        return after(NativeFunction.SET_PARAMETER_STRING_W, token, result);
+    }
+
+    @Override
+    public int VBVMR_SetParameters(Pointer paramScript) {
+        long token = before(NativeFunction.SET_PARAMETERS);
+        int result = token == REJECT ? rejected(NativeFunction.SET_PARAMETERS) : delegate.VBVMR_SetParameters(paramScript);
+        return after(NativeFunction.SET_PARAMETERS, token, result);
+    }
+
+    @Override
+    public int VBVMR_SetParametersW(Pointer paramScript) {
+        long token = before(NativeFunction.SET_PARAMETERS_W);
+        int result = token == REJECT ? rejected(NativeFunction.SET_PARAMETERS_W) : delegate.VBVMR_SetParametersW(paramScript);
+        return after(NativeFunction.SET_PARAMETERS_W, token, result);
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceNumber() {
+        long token = before(NativeFunction.OUTPUT_GET_DEVICE_NUMBER);
+        int result = token == REJECT ? rejected(NativeFunction.OUTPUT_GET_DEVICE_NUMBER) : delegate.VBVMR_Output_GetDeviceNumber();
+        return after(NativeFunction.OUTPUT_GET_DEVICE_NUMBER, token, result);
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        long token = before(NativeFunction.OUTPUT_GET_DEVICE_DESC_A);
+        int result = token == REJECT ? rejected(NativeFunction.OUTPUT_GET_DEVICE_DESC_A) : delegate.VBVMR_Output_GetDeviceDescA(index, type, deviceName, hardwareId);
+        return after(NativeFunction.OUTPUT_GET_DEVICE_DESC_A, token, result);
+    }
+
+    @Override
+    public int VBVMR_Output_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        long token = before(NativeFunction.OUTPUT_GET_DEVICE_DESC_W);
+        int result = token == REJECT ? rejected(NativeFunction.OUTPUT_GET_DEVICE_DESC_W) : delegate.VBVMR_Output_GetDeviceDescW(index, type, deviceName, hardwareId);
+        return after(NativeFunction.OUTPUT_GET_DEVICE_DESC_W, token, result);
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceNumber() {
+        long token = before(NativeFunction.INPUT_GET_DEVICE_NUMBER);
+        int result = token == REJECT ? rejected(NativeFunction.INPUT_GET_DEVICE_NUMBER) : delegate.VBVMR_Input_GetDeviceNumber();
+        return after(NativeFunction.INPUT_GET_DEVICE_NUMBER, token, result);
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        long token = before(NativeFunction.INPUT_GET_DEVICE_DESC_A);
+        int result = token == REJECT ? rejected(NativeFunction.INPUT_GET_DEVICE_DESC_A) : delegate.VBVMR_Input_GetDeviceDescA(index, type, deviceName, hardwareId);
+        return after(NativeFunction.INPUT_GET_DEVICE_DESC_A, token, result);
+    }
+
+    @Override
+    public int VBVMR_Input_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        long token = before(NativeFunction.INPUT_GET_DEVICE_DESC_W);
+        int result = token == REJECT ? rejected(NativeFunction.INPUT_GET_DEVICE_DESC_W) : delegate.VBVMR_Input_GetDeviceDescW(index, type, deviceName, hardwareId);
+        return after(NativeFunction.INPUT_GET_DEVICE_DESC_W, token, result);
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackRegister(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, byte[] clientName) {
+        long token = before(NativeFunction.AUDIO_CALLBACK_REGISTER);
+        int result = token == REJECT ? rejected(NativeFunction.AUDIO_CALLBACK_REGISTER) : delegate.VBVMR_AudioCallbackRegister(mode, callback, user, clientName);
+        return after(NativeFunction.AUDIO_CALLBACK_REGISTER, token, result);
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackStart() {
+        long token = before(NativeFunction.AUDIO_CALLBACK_START);
+        int result = token == REJECT ? rejected(NativeFunction.AUDIO_CALLBACK_START) : delegate.VBVMR_AudioCallbackStart();
+        return after(NativeFunction.AUDIO_CALLBACK_START, token, result);
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackStop() {
+        long token = before(NativeFunction.AUDIO_CALLBACK_STOP);
+        int result = token == REJECT ? rejected(NativeFunction.AUDIO_CALLBACK_STOP) : delegate.VBVMR_AudioCallbackStop();
+        return after(NativeFunction.AUDIO_CALLBACK_STOP, token, result);
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackUnregister() {
+        long token = before(NativeFunction.AUDIO_CALLBACK_UNREGISTER);
+        int result = token == REJECT ? rejected(NativeFunction.AUDIO_CALLBACK_UNREGISTER) : delegate.VBVMR_AudioCallbackUnregister();
+        return after(NativeFunction.AUDIO_CALLBACK_UNREGISTER, token, result);
+    }
+}
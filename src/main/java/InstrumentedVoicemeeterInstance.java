@@ -0,0 +1,173 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records call counts, error codes and latencies of every VBVMR_* function
+ * called through it. Recording a call only updates preallocated atomic arrays,
+ * so instrumentation does not allocate on the call path.
+ *
+ * Latencies are kept in a log-linear histogram: each power of two is split
+ * into {@value #SUB_BUCKETS} buckets, bounding the error of a percentile to
+ * 25%. Negative return codes are counted per code from -1 to
+ * -{@value #ERROR_CODES}; lower codes share the last bucket.
+ *
+ * Statistics are read through {@link #snapshot()}, or over JMX once
+ * {@link #registerMBeans()} has been called.
+ */
+public class InstrumentedVoicemeeterInstance extends ForwardingVoicemeeterInstance {
+    public static final String MBEAN_DOMAIN = "Voicemeeter";
+
+    static final int ERROR_CODES = 16;
+    static final int SUB_BUCKET_BITS = 2;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Durations are non-negative longs, so the highest power of two is 2^62
+    static final int LATENCY_BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private static final NativeFunction[] FUNCTIONS = NativeFunction.values();
+
+    private final AtomicLongArray calls = new AtomicLongArray(FUNCTIONS.length);
+    private final AtomicLongArray totalNanos = new AtomicLongArray(FUNCTIONS.length);
+    private final AtomicLongArray maxNanos = new AtomicLongArray(FUNCTIONS.length);
+    private final AtomicLongArray errors = new AtomicLongArray(FUNCTIONS.length * ERROR_CODES);
+    private final AtomicLongArray latencies = new AtomicLongArray(FUNCTIONS.length * LATENCY_BUCKETS);
+
+    public InstrumentedVoicemeeterInstance(VoicemeeterInstance delegate) {
+        super(delegate);
+    }
+
+    @Override
+    protected long before(NativeFunction function) {
+        return System.nanoTime();
+    }
+
+    @Override
+    protected int after(NativeFunction function, long token, int result) {
+        long nanos = Math.max(System.nanoTime() - token, 0);
+        int index = function.ordinal();
+
+        calls.incrementAndGet(index);
+        totalNanos.addAndGet(index, nanos);
+        long max = maxNanos.get(index);
+        while (nanos > max && !maxNanos.compareAndSet(index, max, nanos))
+            max = maxNanos.get(index);
+        latencies.incrementAndGet(index * LATENCY_BUCKETS + bucket(nanos));
+
+        if (result < 0)
+            errors.incrementAndGet(index * ERROR_CODES + Math.min(-result, ERROR_CODES) - 1);
+        return result;
+    }
+
+    /**
+     * @return The statistics of every function
+     */
+    public Map<NativeFunction, NativeCallSnapshot> snapshot() {
+        Map<NativeFunction, NativeCallSnapshot> snapshots = new EnumMap<>(NativeFunction.class);
+        for (NativeFunction function : FUNCTIONS)
+            snapshots.put(function, snapshot(function));
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    public NativeCallSnapshot snapshot(NativeFunction function) {
+        int index = function.ordinal();
+
+        long[] errorCounts = new long[ERROR_CODES];
+        for (int i = 0; i < ERROR_CODES; i++)
+            errorCounts[i] = errors.get(index * ERROR_CODES + i);
+
+        long[] latencyCounts = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++)
+            latencyCounts[i] = latencies.get(index * LATENCY_BUCKETS + i);
+
+        return new NativeCallSnapshot(function, calls.get(index), totalNanos.get(index), maxNanos.get(index),
+                errorCounts, latencyCounts);
+    }
+
+    /**
+     * Clears every statistic. Calls in progress may be partially counted.
+     */
+    public void reset() {
+        for (int i = 0; i < FUNCTIONS.length; i++) {
+            calls.set(i, 0);
+            totalNanos.set(i, 0);
+            maxNanos.set(i, 0);
+        }
+        for (int i = 0; i < errors.length(); i++)
+            errors.set(i, 0);
+        for (int i = 0; i < latencies.length(); i++)
+            latencies.set(i, 0);
+    }
+
+    /**
+     * Registers one {@link NativeCallStatisticsMBean} per function with the
+     * platform MBean server, named
+     * <code>Voicemeeter:type=NativeCall,name=VBVMR_*</code>.
+     */
+    public void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (NativeFunction function : FUNCTIONS) {
+                ObjectName name = objectName(function);
+                if (server.isRegistered(name))
+                    server.unregisterMBean(name);
+                server.registerMBean(new NativeCallStatistics(this, function), name);
+            }
+        } catch (JMException e) {
+            throw new VoicemeeterException("Unable to register the native call MBeans", e);
+        }
+    }
+
+    public void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (NativeFunction function : FUNCTIONS) {
+                ObjectName name = objectName(function);
+                if (server.isRegistered(name))
+                    server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new VoicemeeterException("Unable to unregister the native call MBeans", e);
+        }
+    }
+
+    static ObjectName objectName(NativeFunction function) throws JMException {
+        return new ObjectName(MBEAN_DOMAIN + ":type=NativeCall,name=" + function.getFunctionName());
+    }
+
+    /**
+     * @return The latency bucket holding a duration
+     */
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The smallest duration held by a latency bucket
+     */
+    static long bucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @return The largest duration held by a latency bucket
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return bucketLowerBound(bucket) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
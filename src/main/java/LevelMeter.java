@@ -0,0 +1,212 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Samples every channel of every level type on one background thread and
+ * computes meter ballistics: peak hold, decaying peak and smoothed RMS. State
+ * is kept in primitive arrays, and every few sweeps the readings are published
+ * as an immutable {@link MeterSnapshot} through a volatile reference, so any
+ * number of readers can fetch the latest readings without locking while the
+ * native layer is swept once per tick. {@link MeterListener}s are told of
+ * every published snapshot; exceptions they throw are passed to the error
+ * handler, see {@link Voicemeeter#setErrorHandler(Consumer)}.
+ */
+public class LevelMeter {
+    public static final long DEFAULT_HOLD_MILLIS = 1500;
+    public static final float DEFAULT_DECAY_DB_PER_SECOND = 20;
+    public static final long DEFAULT_RMS_WINDOW_MILLIS = 300;
+
+    private static final int LEVEL_TYPES = 4;
+
+    private final LevelSnapshot levelSnapshot;
+    private final int rate;
+    private final int publishEvery;
+    private final float holdSeconds;
+    private final float peakDecay;
+    private final float rmsAlpha;
+
+    private final float[][] levels = new float[LEVEL_TYPES][];
+    private final float[][] peaks = new float[LEVEL_TYPES][];
+    private final float[][] holds = new float[LEVEL_TYPES][];
+    private final float[][] holdAges = new float[LEVEL_TYPES][];
+    private final float[][] meanSquares = new float[LEVEL_TYPES][];
+    private final List<MeterListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+
+    private volatile MeterSnapshot snapshot;
+    private int sweeps;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param type Voicemeeter edition to meter
+     * @param rate Sweeps per second
+     */
+    public LevelMeter(VoicemeeterType type, int rate) {
+        this(type, rate, 1, DEFAULT_HOLD_MILLIS, DEFAULT_DECAY_DB_PER_SECOND, DEFAULT_RMS_WINDOW_MILLIS);
+    }
+
+    /**
+     * @param type              Voicemeeter edition to meter
+     * @param rate              Sweeps per second
+     * @param publishEvery      Number of sweeps per published snapshot
+     * @param holdMillis        Time a peak is held before falling back to the
+     *                           decaying peak
+     * @param decayDbPerSecond  Fall rate of the decaying peak
+     * @param rmsWindowMillis   Time constant of the RMS smoothing
+     */
+    public LevelMeter(VoicemeeterType type, int rate, int publishEvery, long holdMillis, float decayDbPerSecond, long rmsWindowMillis) {
+        if (rate <= 0 || publishEvery <= 0)
+            throw new IllegalArgumentException("Invalid meter rate " + rate + "/" + publishEvery);
+
+        this.levelSnapshot = new LevelSnapshot(type);
+        this.rate = rate;
+        this.publishEvery = publishEvery;
+
+        float dt = 1.0f / rate;
+        this.holdSeconds = holdMillis / 1000.0f;
+        this.peakDecay = (float) Math.pow(10, -decayDbPerSecond * dt / 20);
+        this.rmsAlpha = (float) (1 - Math.exp(-dt / (rmsWindowMillis / 1000.0)));
+
+        for (int levelType = 0; levelType < LEVEL_TYPES; levelType++) {
+            int channels = type.getLevelChannels(levelType);
+            levels[levelType] = new float[channels];
+            peaks[levelType] = new float[channels];
+            holds[levelType] = new float[channels];
+            holdAges[levelType] = new float[channels];
+            meanSquares[levelType] = new float[channels];
+        }
+        publish(System.nanoTime());
+    }
+
+    /**
+     * @return The latest published readings
+     */
+    public MeterSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replaces the library-wide error handler for this meter.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    public void addListener(MeterListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MeterListener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        running = true;
+        thread = new Thread(this::run, "Voicemeeter level meter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Sweeps every level once and updates the meter state. Called by the meter
+     * thread, or directly when the meter is not started.
+     */
+    public void sweep() {
+        long timestamp = System.nanoTime();
+        float dt = 1.0f / rate;
+
+        for (int levelType = 0; levelType < LEVEL_TYPES; levelType++) {
+            float[] level = levels[levelType];
+            if (levelSnapshot.tryRead(levelType, level) != VoicemeeterStatus.OK)
+                Arrays.fill(level, 0);
+
+            float[] peak = peaks[levelType];
+            float[] hold = holds[levelType];
+            float[] holdAge = holdAges[levelType];
+            float[] meanSquare = meanSquares[levelType];
+
+            for (int channel = 0; channel < level.length; channel++) {
+                float value = level[channel];
+
+                peak[channel] = value >= peak[channel] ? value : peak[channel] * peakDecay;
+
+                if (value >= hold[channel]) {
+                    hold[channel] = value;
+                    holdAge[channel] = 0;
+                } else if ((holdAge[channel] += dt) > holdSeconds) {
+                    hold[channel] = peak[channel];
+                }
+
+                meanSquare[channel] += rmsAlpha * (value * value - meanSquare[channel]);
+            }
+        }
+
+        if (++sweeps % publishEvery == 0) {
+            publish(timestamp);
+            for (MeterListener listener : listeners) {
+                try {
+                    listener.meterUpdated(snapshot);
+                } catch (RuntimeException e) {
+                    errorHandler.accept(e);
+                }
+            }
+        }
+    }
+
+    private void run() {
+        long period = 1000000000L / rate;
+        long deadline = System.nanoTime();
+
+        while (running) {
+            sweep();
+
+            deadline += period;
+            long wait = deadline - System.nanoTime();
+            if (wait > 0)
+                LockSupport.parkNanos(wait);
+            else
+                deadline = System.nanoTime();
+        }
+    }
+
+    private void publish(long timestamp) {
+        float[][] rms = new float[LEVEL_TYPES][];
+        for (int levelType = 0; levelType < LEVEL_TYPES; levelType++) {
+            float[] meanSquare = meanSquares[levelType];
+            rms[levelType] = new float[meanSquare.length];
+            for (int channel = 0; channel < meanSquare.length; channel++)
+                rms[levelType][channel] = (float) Math.sqrt(meanSquare[channel]);
+        }
+
+        snapshot = new MeterSnapshot(timestamp, copy(levels), copy(peaks), copy(holds), rms);
+    }
+
+    private static float[][] copy(float[][] arrays) {
+        float[][] copy = new float[arrays.length][];
+        for (int i = 0; i < arrays.length; i++)
+            copy[i] = arrays[i].clone();
+        return copy;
+    }
+}
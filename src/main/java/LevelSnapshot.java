@@ -0,0 +1,106 @@
+import com.sun.jna.Pointer;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Reads every channel of a level type in one call, using the channel layout of
+ * a {@link VoicemeeterType} and a single reusable native value buffer.
+ *
+ * A snapshot owns its buffers and is therefore not thread safe.
+ */
+public class LevelSnapshot {
+    public static final int INPUT_PRE_FADER = 0;
+    public static final int INPUT_POST_FADER = 1;
+    public static final int INPUT_POST_MUTE = 2;
+    public static final int OUTPUT = 3;
+
+    private final VoicemeeterType type;
+    private final Pointer levelValue = Voicemeeter.getPointer(4);
+    private final float[][] levels = new float[4][];
+
+    public LevelSnapshot(VoicemeeterType type) {
+        this.type = type;
+        for (int levelType = 0; levelType < levels.length; levelType++)
+            levels[levelType] = new float[type.getLevelChannels(levelType)];
+    }
+
+    /**
+     * Creates a snapshot for the edition of the running Voicemeeter.
+     */
+    public static LevelSnapshot forRunningType() {
+        return new LevelSnapshot(VoicemeeterType.fromId(Voicemeeter.getVoicemeeterType()));
+    }
+
+    public VoicemeeterType getType() {
+        return type;
+    }
+
+    /**
+     * Reads every channel of the level type into the start of the array.
+     *
+     * @return The number of channels read
+     */
+    public int read(int levelType, float[] levels) {
+        int channels = type.getLevelChannels(levelType);
+        if (levels.length < channels)
+            throw new IllegalArgumentException("Level array holds " + levels.length + " channels, " + channels + " required");
+
+        for (int channel = 0; channel < channels; channel++)
+            levels[channel] = Voicemeeter.getLevel(levelType, channel, levelValue);
+        return channels;
+    }
+
+    /**
+     * Exception-free variant of {@link #read(int, float[])}. Reading stops at
+     * the first channel that fails.
+     *
+     * @return The status of the first failing channel, OUT_OF_RANGE if the
+     *          level type is invalid or the array is too short, or OK
+     */
+    public VoicemeeterStatus tryRead(int levelType, float[] levels) {
+        if (levelType < 0 || levelType >= this.levels.length)
+            return VoicemeeterStatus.OUT_OF_RANGE;
+
+        int channels = type.getLevelChannels(levelType);
+        if (levels.length < channels)
+            return VoicemeeterStatus.OUT_OF_RANGE;
+        for (int channel = 0; channel < channels; channel++) {
+            VoicemeeterStatus status = Voicemeeter.tryGetLevel(levelType, channel, levelValue);
+            if (status != VoicemeeterStatus.OK)
+                return status;
+            levels[channel] = levelValue.getFloat(0);
+        }
+        return VoicemeeterStatus.OK;
+    }
+
+    /**
+     * Reads every channel of the level type into the buffer, starting at its
+     * current position.
+     *
+     * @return The number of channels read
+     */
+    public int read(int levelType, FloatBuffer levels) {
+        int channels = type.getLevelChannels(levelType);
+        if (levels.remaining() < channels)
+            throw new IllegalArgumentException("Level buffer holds " + levels.remaining() + " channels, " + channels + " required");
+
+        for (int channel = 0; channel < channels; channel++)
+            levels.put(Voicemeeter.getLevel(levelType, channel, levelValue));
+        return channels;
+    }
+
+    /**
+     * Reads every channel of every level type into the snapshot.
+     */
+    public void update() {
+        for (int levelType = 0; levelType < levels.length; levelType++)
+            read(levelType, levels[levelType]);
+    }
+
+    /**
+     * @return The level of the channel as of the last {@link #update()}
+     */
+    public float get(int levelType, int channel) {
+        return levels[levelType][channel];
+    }
+}
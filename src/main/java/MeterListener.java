@@ -0,0 +1,7 @@
+/**
+ * Receives the snapshots published by a {@link LevelMeter}. Listeners are
+ * called on the meter thread after every publish and should return quickly.
+ */
+public interface MeterListener {
+    void meterUpdated(MeterSnapshot snapshot);
+}
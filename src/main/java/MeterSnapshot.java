@@ -0,0 +1,59 @@
+/**
+ * Immutable meter readings for every channel of every level type, published by
+ * a {@link LevelMeter}. All values are linear levels, as returned by
+ * VBVMR_GetLevel.
+ */
+public class MeterSnapshot {
+    private final long timestamp;
+    private final float[][] levels;
+    private final float[][] peaks;
+    private final float[][] holds;
+    private final float[][] rms;
+
+    MeterSnapshot(long timestamp, float[][] levels, float[][] peaks, float[][] holds, float[][] rms) {
+        this.timestamp = timestamp;
+        this.levels = levels;
+        this.peaks = peaks;
+        this.holds = holds;
+        this.rms = rms;
+    }
+
+    /**
+     * @return The time of the sweep, from {@link System#nanoTime()}
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getChannels(int levelType) {
+        return levels[levelType].length;
+    }
+
+    /**
+     * @return The instantaneous level of the last sweep
+     */
+    public float getLevel(int levelType, int channel) {
+        return levels[levelType][channel];
+    }
+
+    /**
+     * @return The peak level, decaying at the configured rate
+     */
+    public float getPeak(int levelType, int channel) {
+        return peaks[levelType][channel];
+    }
+
+    /**
+     * @return The peak level held for the configured hold time
+     */
+    public float getHold(int levelType, int channel) {
+        return holds[levelType][channel];
+    }
+
+    /**
+     * @return The exponentially smoothed RMS level
+     */
+    public float getRms(int levelType, int channel) {
+        return rms[levelType][channel];
+    }
+}
@@ -0,0 +1,252 @@
+import com.sun.jna.Pointer;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Polls the MIDI input of Voicemeeter on a background thread through a single
+ * reusable native buffer, splits the received bytes into {@link MidiMessage}s
+ * and hands them to listeners through a bounded queue. Polling without MIDI
+ * data neither throws nor allocates.
+ *
+ * Running status is supported, system exclusive messages are skipped, and real
+ * time messages are delivered as single byte messages. When the queue is full,
+ * new messages are dropped and counted.
+ *
+ * Failed polls and exceptions thrown by listeners are passed to the error
+ * handler, see {@link Voicemeeter#setErrorHandler(Consumer)}. While polls keep
+ * failing, for instance while Voicemeeter is closed, only the first failure is
+ * reported, and the poll thread checks for the server less and less often
+ * without constructing exceptions.
+ */
+public class MidiInput {
+    public static final int BUFFER_SIZE = 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_POLL_INTERVAL_NANOS = 1000000;
+
+    private static final long MAX_NO_SERVER_INTERVAL_NANOS = 100000000;
+
+    private final long pollIntervalNanos;
+    private final BlockingQueue<MidiMessage> queue;
+    private final List<MidiListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final Pointer buffer = Voicemeeter.getPointer(BUFFER_SIZE);
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final int[] count = new int[1];
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+
+    private Thread pollThread;
+    private Thread dispatchThread;
+
+    // Parser state, only touched by the poll thread
+    private int runningStatus;
+    private int expectedData;
+    private int receivedData;
+    private int data1;
+    private boolean inSystemExclusive;
+
+    public MidiInput() {
+        this(DEFAULT_POLL_INTERVAL_NANOS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public MidiInput(long pollIntervalNanos, int queueCapacity) {
+        this.pollIntervalNanos = pollIntervalNanos;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Replaces the library-wide error handler for this input.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    public void addListener(MidiListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MidiListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return The number of messages dropped because the queue was full
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    public synchronized void start() {
+        if (pollThread != null)
+            return;
+
+        pollThread = new Thread(this::pollLoop, "Voicemeeter MIDI poll");
+        pollThread.setDaemon(true);
+        dispatchThread = new Thread(this::dispatchLoop, "Voicemeeter MIDI dispatch");
+        dispatchThread.setDaemon(true);
+
+        dispatchThread.start();
+        pollThread.start();
+    }
+
+    public synchronized void stop() {
+        if (pollThread == null)
+            return;
+
+        pollThread.interrupt();
+        dispatchThread.interrupt();
+        try {
+            pollThread.join();
+            dispatchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pollThread = null;
+        dispatchThread = null;
+    }
+
+    /**
+     * Reads any pending MIDI data and queues the messages it contains. Called
+     * by the poll thread, or directly when the input is not started.
+     *
+     * @return The number of bytes read
+     */
+    public int pollOnce() {
+        VoicemeeterStatus status = tryPollOnce();
+        if (!status.isOk())
+            throw status.toException();
+        return count[0];
+    }
+
+    /**
+     * Takes the next queued message, for consuming messages without listeners
+     * while the input is not started.
+     *
+     * @return The next queued message, or null if there is none
+     */
+    public MidiMessage poll() {
+        return queue.poll();
+    }
+
+    /**
+     * @return The status of the read; the byte count is left in count[0]
+     */
+    private VoicemeeterStatus tryPollOnce() {
+        VoicemeeterStatus status = Voicemeeter.tryGetMidiMessage(buffer, BUFFER_SIZE, count);
+        if (!status.isOk() || count[0] == 0)
+            return status;
+
+        buffer.read(0, bytes, 0, count[0]);
+        long timestamp = System.nanoTime();
+        for (int i = 0; i < count[0]; i++)
+            parse(bytes[i] & 0xFF, timestamp);
+        return status;
+    }
+
+    private void pollLoop() {
+        long interval = pollIntervalNanos;
+        boolean failing = false;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            VoicemeeterStatus status = tryPollOnce();
+            if (status.isOk()) {
+                failing = false;
+                interval = pollIntervalNanos;
+                if (count[0] > 0)
+                    continue;
+            } else {
+                if (!failing)
+                    errorHandler.accept(status.toException());
+                failing = true;
+                // Voicemeeter is closed; check for it less often until it is back
+                if (status == VoicemeeterStatus.NO_SERVER)
+                    interval = Math.min(Math.max(interval * 2, 1), MAX_NO_SERVER_INTERVAL_NANOS);
+            }
+
+            LockSupport.parkNanos(interval);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            MidiMessage message;
+            try {
+                message = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            for (MidiListener listener : listeners) {
+                try {
+                    listener.midiReceived(message);
+                } catch (RuntimeException e) {
+                    errorHandler.accept(e);
+                }
+            }
+        }
+    }
+
+    private void parse(int b, long timestamp) {
+        if (b >= 0xF8) {
+            // Real time messages may appear anywhere and do not affect running status
+            publish(new MidiMessage(b, 0, 0, timestamp));
+            return;
+        }
+
+        if (b >= 0x80) {
+            inSystemExclusive = b == 0xF0;
+            receivedData = 0;
+
+            if (b >= 0xF0) {
+                runningStatus = 0;
+                switch (b) {
+                    case 0xF1:
+                    case 0xF3:
+                        runningStatus = b;
+                        expectedData = 1;
+                        break;
+                    case 0xF2:
+                        runningStatus = b;
+                        expectedData = 2;
+                        break;
+                    case 0xF6:
+                        publish(new MidiMessage(b, 0, 0, timestamp));
+                        break;
+                    default:
+                        break;
+                }
+            } else {
+                runningStatus = b;
+                expectedData = (b & 0xF0) == MidiMessage.PROGRAM_CHANGE || (b & 0xF0) == MidiMessage.CHANNEL_PRESSURE ? 1 : 2;
+            }
+            return;
+        }
+
+        if (inSystemExclusive || runningStatus == 0)
+            return;
+
+        if (receivedData == 0)
+            data1 = b;
+        receivedData++;
+
+        if (receivedData == expectedData) {
+            publish(new MidiMessage(runningStatus, data1, expectedData == 2 ? b : 0, timestamp));
+            receivedData = 0;
+            // System common messages do not set running status
+            if (runningStatus >= 0xF0)
+                runningStatus = 0;
+        }
+    }
+
+    private void publish(MidiMessage message) {
+        if (!queue.offer(message))
+            droppedMessages.incrementAndGet();
+    }
+}
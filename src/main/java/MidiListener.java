@@ -0,0 +1,7 @@
+/**
+ * Receives MIDI messages from a {@link MidiInput}. Listeners are called on the
+ * MIDI dispatch thread.
+ */
+public interface MidiListener {
+    void midiReceived(MidiMessage message);
+}
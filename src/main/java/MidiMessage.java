@@ -0,0 +1,82 @@
+/**
+ * A MIDI message received through Voicemeeter. Data bytes that a message does
+ * not use are 0.
+ */
+public class MidiMessage {
+    public static final int NOTE_OFF = 0x80;
+    public static final int NOTE_ON = 0x90;
+    public static final int POLY_PRESSURE = 0xA0;
+    public static final int CONTROL_CHANGE = 0xB0;
+    public static final int PROGRAM_CHANGE = 0xC0;
+    public static final int CHANNEL_PRESSURE = 0xD0;
+    public static final int PITCH_BEND = 0xE0;
+
+    private final int status;
+    private final int data1;
+    private final int data2;
+    private final long timestamp;
+
+    public MidiMessage(int status, int data1, int data2, long timestamp) {
+        this.status = status;
+        this.data1 = data1;
+        this.data2 = data2;
+        this.timestamp = timestamp;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return The command of a channel message (NOTE_ON, CONTROL_CHANGE, ...),
+     *          or the full status byte of a system message
+     */
+    public int getCommand() {
+        return status < 0xF0 ? status & 0xF0 : status;
+    }
+
+    /**
+     * @return The zero-based channel of a channel message
+     */
+    public int getChannel() {
+        return status & 0x0F;
+    }
+
+    public int getData1() {
+        return data1;
+    }
+
+    public int getData2() {
+        return data2;
+    }
+
+    /**
+     * @return Whether this is a note on with a non-zero velocity
+     */
+    public boolean isNoteOn() {
+        return getCommand() == NOTE_ON && data2 > 0;
+    }
+
+    /**
+     * @return Whether this is a note off, or a note on with zero velocity
+     */
+    public boolean isNoteOff() {
+        return getCommand() == NOTE_OFF || (getCommand() == NOTE_ON && data2 == 0);
+    }
+
+    public boolean isControlChange() {
+        return getCommand() == CONTROL_CHANGE;
+    }
+
+    /**
+     * @return The time the message was received, from {@link System#nanoTime()}
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MidiMessage[%02X %02X %02X]", status, data1, data2);
+    }
+}
@@ -0,0 +1,212 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of float parameter values, for saving a mixer state and
+ * restoring it later:
+ *
+ * <pre>
+ *     ParameterRegistry registry = ParameterRegistry.forRunningType();
+ *     MixerSnapshot saved = MixerSnapshot.capture(registry.getHandles());
+ *     ...
+ *     saved.restoreOver(MixerSnapshot.capture(registry.getHandles()));
+ * </pre>
+ *
+ * Values are kept in a primitive array alongside the parameter names.
+ * Restoring writes through a {@link ParameterBatcher}, so any number of values
+ * costs one VBVMR_SetParameters call per 48 kB of script, and
+ * {@link #restoreOver(MixerSnapshot)} only writes the values that differ from
+ * the current state.
+ */
+public class MixerSnapshot {
+    private static final int MAGIC = 0x564d5353; // "VMSS"
+    private static final int VERSION = 1;
+    private static final int INITIAL_READ_CAPACITY = 1024;
+
+    private final String[] names;
+    private final float[] values;
+    private volatile Map<String, Integer> indices;
+
+    private MixerSnapshot(String[] names, float[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Reads the current value of every parameter.
+     */
+    public static MixerSnapshot capture(Collection<ParameterHandle> handles) {
+        String[] names = new String[handles.size()];
+        float[] values = new float[names.length];
+
+        int i = 0;
+        for (ParameterHandle handle : handles) {
+            names[i] = handle.getName();
+            values[i++] = handle.getFloat();
+        }
+        return new MixerSnapshot(names, values);
+    }
+
+    /**
+     * Captures the parameters registered in a cache, which only reads them
+     * back from Voicemeeter if they have changed since the last refresh.
+     */
+    public static MixerSnapshot capture(ParameterCache cache) {
+        cache.refresh();
+
+        String[] names = new String[cache.size()];
+        float[] values = new float[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = cache.getName(i);
+            values[i] = cache.get(i);
+        }
+        return new MixerSnapshot(names, values);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public float getValue(int index) {
+        return values[index];
+    }
+
+    public boolean contains(String parameterName) {
+        return indices().containsKey(parameterName);
+    }
+
+    /**
+     * @throws IllegalArgumentException If the parameter is not part of the
+     *                                   snapshot
+     */
+    public float get(String parameterName) {
+        Integer index = indices().get(parameterName);
+        if (index == null)
+            throw new IllegalArgumentException("Parameter " + parameterName + " is not part of the snapshot");
+        return values[index];
+    }
+
+    /**
+     * @return The values of this snapshot that are missing from or differ in
+     *          the other snapshot
+     */
+    public MixerSnapshot diff(MixerSnapshot other) {
+        String[] diffNames = new String[names.length];
+        float[] diffValues = new float[names.length];
+        int size = 0;
+
+        boolean sameLayout = Arrays.equals(names, other.names);
+        for (int i = 0; i < names.length; i++) {
+            int index = sameLayout ? i : other.indexOf(names[i]);
+            if (index >= 0 && Float.floatToIntBits(values[i]) == Float.floatToIntBits(other.values[index]))
+                continue;
+
+            diffNames[size] = names[i];
+            diffValues[size++] = values[i];
+        }
+
+        return new MixerSnapshot(Arrays.copyOf(diffNames, size), Arrays.copyOf(diffValues, size));
+    }
+
+    /**
+     * Writes every value of the snapshot to Voicemeeter.
+     *
+     * @return The number of VBVMR_SetParameters calls made
+     */
+    public int restore() {
+        return names.length == 0 ? 0 : restore(new ParameterBatcher());
+    }
+
+    /**
+     * Writes every value of the snapshot through a batcher, along with any
+     * writes already pending in it.
+     *
+     * @return The number of VBVMR_SetParameters calls made
+     */
+    public int restore(ParameterBatcher batcher) {
+        for (int i = 0; i < names.length; i++)
+            batcher.set(names[i], values[i]);
+        return batcher.flush();
+    }
+
+    /**
+     * Writes the values that differ from the current state.
+     *
+     * @param current A snapshot of the current state
+     * @return The number of VBVMR_SetParameters calls made
+     */
+    public int restoreOver(MixerSnapshot current) {
+        return diff(current).restore();
+    }
+
+    /**
+     * Writes the snapshot in a compact binary form: a header, the parameter
+     * count, then each name as modified UTF-8 followed by its value.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            out.writeUTF(names[i]);
+            out.writeFloat(values[i]);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeTo(DataOutput)}.
+     *
+     * @throws IOException If the data is not a snapshot
+     */
+    public static MixerSnapshot readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC)
+            throw new IOException("Not a mixer snapshot");
+        int version = in.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("Unsupported mixer snapshot version " + version);
+
+        int size = in.readInt();
+        if (size < 0)
+            throw new IOException("Invalid mixer snapshot size " + size);
+
+        // Grown while reading, so a corrupt size fails at the end of the data
+        String[] names = new String[Math.min(size, INITIAL_READ_CAPACITY)];
+        float[] values = new float[names.length];
+        for (int i = 0; i < size; i++) {
+            if (i == names.length) {
+                int capacity = (int) Math.min((long) names.length * 2, size);
+                names = Arrays.copyOf(names, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            names[i] = in.readUTF();
+            values[i] = in.readFloat();
+        }
+        return new MixerSnapshot(names, values);
+    }
+
+    private int indexOf(String parameterName) {
+        Integer index = indices().get(parameterName);
+        return index == null ? -1 : index;
+    }
+
+    private Map<String, Integer> indices() {
+        // Built on first lookup; concurrent builds produce equal maps
+        Map<String, Integer> indices = this.indices;
+        if (indices == null) {
+            indices = new HashMap<>();
+            for (int i = 0; i < names.length; i++)
+                indices.put(names[i], i);
+            this.indices = indices;
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Immutable statistics of one VBVMR_* function, taken by
+ * {@link InstrumentedVoicemeeterInstance#snapshot(NativeFunction)}. Counters
+ * are read one at a time while calls continue, so the totals of a snapshot
+ * may disagree by the calls made while it was taken.
+ */
+public class NativeCallSnapshot {
+    private final NativeFunction function;
+    private final long calls;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] errors;
+    private final long[] latencies;
+
+    NativeCallSnapshot(NativeFunction function, long calls, long totalNanos, long maxNanos, long[] errors, long[] latencies) {
+        this.function = function;
+        this.calls = calls;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.errors = errors;
+        this.latencies = latencies;
+    }
+
+    public NativeFunction getFunction() {
+        return function;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return The number of calls that returned a negative code
+     */
+    public long getErrors() {
+        long total = 0;
+        for (long count : errors)
+            total += count;
+        return total;
+    }
+
+    /**
+     * @param code Negative return code; codes below the histogram range are
+     *             counted together with its lowest code
+     * @return The number of calls that returned the code
+     */
+    public long getErrors(int code) {
+        if (code >= 0)
+            throw new IllegalArgumentException("Error codes are negative");
+        return errors[Math.min(-code, errors.length) - 1];
+    }
+
+    /**
+     * @return The fraction of calls that returned the code, or 0 if there
+     *          were no calls
+     */
+    public double getErrorRate(int code) {
+        return calls == 0 ? 0 : (double) getErrors(code) / calls;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMeanNanos() {
+        return calls == 0 ? 0 : totalNanos / calls;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @param percentile Percentile from 0 to 100
+     * @return The upper bound of the latency bucket holding the percentile,
+     *          or 0 if there were no calls
+     */
+    public long getPercentileNanos(double percentile) {
+        long count = 0;
+        for (long bucket : latencies)
+            count += bucket;
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+        long seen = 0;
+        for (int bucket = 0; bucket < latencies.length; bucket++) {
+            seen += latencies[bucket];
+            if (seen >= rank)
+                return Math.min(InstrumentedVoicemeeterInstance.bucketUpperBound(bucket), maxNanos);
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return function.getFunctionName() + ": " + calls + " calls, " + getErrors() + " errors, mean "
+                + getMeanNanos() + " ns, p99 " + getPercentileNanos(99) + " ns, max " + maxNanos + " ns";
+    }
+}
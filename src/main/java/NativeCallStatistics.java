@@ -0,0 +1,56 @@
+/**
+ * {@link NativeCallStatisticsMBean} reading a fresh
+ * {@link NativeCallSnapshot} on every attribute access.
+ */
+class NativeCallStatistics implements NativeCallStatisticsMBean {
+    private final InstrumentedVoicemeeterInstance instance;
+    private final NativeFunction function;
+
+    NativeCallStatistics(InstrumentedVoicemeeterInstance instance, NativeFunction function) {
+        this.instance = instance;
+        this.function = function;
+    }
+
+    @Override
+    public long getCalls() {
+        return instance.snapshot(function).getCalls();
+    }
+
+    @Override
+    public long getErrors() {
+        return instance.snapshot(function).getErrors();
+    }
+
+    @Override
+    public long getNoServerErrors() {
+        return instance.snapshot(function).getErrors(-2);
+    }
+
+    @Override
+    public long getMeanNanos() {
+        return instance.snapshot(function).getMeanNanos();
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return instance.snapshot(function).getMaxNanos();
+    }
+
+    @Override
+    public long getMedianNanos() {
+        return instance.snapshot(function).getPercentileNanos(50);
+    }
+
+    @Override
+    public long get99thPercentileNanos() {
+        return instance.snapshot(function).getPercentileNanos(99);
+    }
+
+    /**
+     * Resets the statistics of every function of the instance.
+     */
+    @Override
+    public void reset() {
+        instance.reset();
+    }
+}
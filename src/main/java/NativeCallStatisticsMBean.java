@@ -0,0 +1,25 @@
+/**
+ * JMX view of the statistics of one VBVMR_* function, registered by
+ * {@link InstrumentedVoicemeeterInstance#registerMBeans()}.
+ */
+public interface NativeCallStatisticsMBean {
+    long getCalls();
+
+    long getErrors();
+
+    /**
+     * @return The number of calls that returned -2, which most functions use
+     *          for "no server"
+     */
+    long getNoServerErrors();
+
+    long getMeanNanos();
+
+    long getMaxNanos();
+
+    long getMedianNanos();
+
+    long get99thPercentileNanos();
+
+    void reset();
+}
@@ -0,0 +1,45 @@
+/**
+ * The VBVMR_* functions of {@link VoicemeeterInstance}, for identifying native
+ * calls in {@link ForwardingVoicemeeterInstance} hooks and call statistics.
+ */
+public enum NativeFunction {
+    LOGIN("VBVMR_Login"),
+    LOGOUT("VBVMR_Logout"),
+    RUN_VOICEMEETER("VBVMR_RunVoicemeeter"),
+    GET_VOICEMEETER_TYPE("VBVMR_GetVoicemeeterType"),
+    GET_VOICEMEETER_VERSION("VBVMR_GetVoicemeeterVersion"),
+    IS_PARAMETERS_DIRTY("VBVMR_IsParametersDirty"),
+    GET_PARAMETER_FLOAT("VBVMR_GetParameterFloat"),
+    GET_PARAMETER_STRING_A("VBVMR_GetParameterStringA"),
+    GET_PARAMETER_STRING_W("VBVMR_GetParameterStringW"),
+    GET_LEVEL("VBVMR_GetLevel"),
+    GET_MIDI_MESSAGE("VBVMR_GetMidiMessage"),
+    SET_PARAMETER_FLOAT("VBVMR_SetParameterFloat"),
+    SET_PARAMETER_STRING_A("VBVMR_SetParameterStringA"),
+    SET_PARAMETER_STRING_W("VBVMR_SetParameterStringW"),
+    SET_PARAMETERS("VBVMR_SetParameters"),
+    SET_PARAMETERS_W("VBVMR_SetParametersW"),
+    OUTPUT_GET_DEVICE_NUMBER("VBVMR_Output_GetDeviceNumber"),
+    OUTPUT_GET_DEVICE_DESC_A("VBVMR_Output_GetDeviceDescA"),
+    OUTPUT_GET_DEVICE_DESC_W("VBVMR_Output_GetDeviceDescW"),
+    INPUT_GET_DEVICE_NUMBER("VBVMR_Input_GetDeviceNumber"),
+    INPUT_GET_DEVICE_DESC_A("VBVMR_Input_GetDeviceDescA"),
+    INPUT_GET_DEVICE_DESC_W("VBVMR_Input_GetDeviceDescW"),
+    AUDIO_CALLBACK_REGISTER("VBVMR_AudioCallbackRegister"),
+    AUDIO_CALLBACK_START("VBVMR_AudioCallbackStart"),
+    AUDIO_CALLBACK_STOP("VBVMR_AudioCallbackStop"),
+    AUDIO_CALLBACK_UNREGISTER("VBVMR_AudioCallbackUnregister");
+
+    private final String functionName;
+
+    NativeFunction(String functionName) {
+        this.functionName = functionName;
+    }
+
+    /**
+     * @return The exported name of the function, such as VBVMR_GetLevel
+     */
+    public String getFunctionName() {
+        return functionName;
+    }
+}
@@ -0,0 +1,227 @@
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Buffers parameter writes and sends them to Voicemeeter as
+ * VBVMR_SetParameters scripts. Repeated writes to the same parameter before a
+ * flush are coalesced, keeping the last value. Scripts are split into chunks
+ * below the 48 kB limit of VBVMR_SetParameters, measured in bytes of the
+ * encoding JNA passes strings in.
+ *
+ * Script syntax has no escapes, so names and string values containing quotes,
+ * ';' or line breaks are rejected rather than allowed to break the script or
+ * add assignments of their own.
+ *
+ * Writes may come from any thread. Flushing happens either explicitly through
+ * {@link #flush()} or periodically once {@link #start(long)} has been called.
+ */
+public class ParameterBatcher {
+    public static final int MAX_SCRIPT_LENGTH = 48 * 1024 - 1;
+
+    private final Object flushLock = new Object();
+    private final StringBuilder script = new StringBuilder();
+    private final Pointer scriptBuffer = Voicemeeter.getPointer(MAX_SCRIPT_LENGTH + 1);
+    private final Charset charset = Charset.forName(Native.getDefaultStringEncoding());
+    private Map<String, String> pending = new LinkedHashMap<>();
+    private Map<String, String> flushing = new LinkedHashMap<>();
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+    private Thread thread;
+
+    /**
+     * @throws IllegalArgumentException If the name contains characters that
+     *                                  would break the script
+     */
+    public void set(String parameterName, float value) {
+        checkName(parameterName);
+        String formatted = formatValue(value);
+        synchronized (this) {
+            pending.put(parameterName, formatted);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If the name or value contains
+     *                                  characters that would break the script
+     */
+    public void set(String parameterName, String value) {
+        checkName(parameterName);
+        if (!isQuotable(value))
+            throw new IllegalArgumentException("Value of " + parameterName + " contains a quote, ';' or line break");
+        String quoted = '"' + value + '"';
+        synchronized (this) {
+            pending.put(parameterName, quoted);
+        }
+    }
+
+    /**
+     * @return The number of parameters waiting to be flushed
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    public synchronized void clear() {
+        pending.clear();
+    }
+
+    /**
+     * Replaces the library-wide error handler for failed background flushes.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Sends every pending write to Voicemeeter. If a script fails, the writes
+     * of the remaining chunks are discarded along with it.
+     *
+     * @return The number of VBVMR_SetParameters calls made
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                Map<String, String> swap = pending;
+                pending = flushing;
+                flushing = swap;
+            }
+
+            int calls = 0;
+            int scriptBytes = 0;
+            try {
+                for (Map.Entry<String, String> entry : flushing.entrySet()) {
+                    String name = entry.getKey();
+                    String value = entry.getValue();
+                    int length = encodedLength(name) + 1 + encodedLength(value);
+                    if (length > MAX_SCRIPT_LENGTH)
+                        throw new VoicemeeterException("Assignment to " + name + " exceeds the maximum script length");
+
+                    if (scriptBytes > 0 && scriptBytes + 1 + length > MAX_SCRIPT_LENGTH) {
+                        send();
+                        calls++;
+                        scriptBytes = 0;
+                    }
+
+                    if (scriptBytes > 0) {
+                        script.append(';');
+                        scriptBytes++;
+                    }
+                    script.append(name).append('=').append(value);
+                    scriptBytes += length;
+                }
+
+                if (scriptBytes > 0) {
+                    send();
+                    calls++;
+                }
+            } finally {
+                script.setLength(0);
+                flushing.clear();
+            }
+
+            return calls;
+        }
+    }
+
+    /**
+     * Starts flushing pending writes on a background thread once per period.
+     */
+    public synchronized void start(long periodMillis) {
+        if (thread != null)
+            return;
+
+        thread = new Thread(() -> run(periodMillis), "Voicemeeter parameter batcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the background thread. Pending writes are kept until the next
+     * flush.
+     */
+    public void stop() {
+        Thread stopping;
+        synchronized (this) {
+            stopping = thread;
+            thread = null;
+        }
+        if (stopping == null)
+            return;
+
+        stopping.interrupt();
+        try {
+            stopping.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(long periodMillis) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                flush();
+            } catch (VoicemeeterException e) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+
+    private void send() {
+        scriptBuffer.setString(0, script.toString());
+        script.setLength(0);
+        Voicemeeter.setParameters(scriptBuffer);
+    }
+
+    private int encodedLength(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) >= 0x80)
+                return str.getBytes(charset).length;
+        }
+        // ASCII is one byte per character in every narrow string encoding
+        return str.length();
+    }
+
+    /**
+     * @return Whether a string value can be enclosed in quotes in a script
+     */
+    static boolean isQuotable(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == ';' || c == '\n' || c == '\r')
+                return false;
+        }
+        return true;
+    }
+
+    private static void checkName(String parameterName) {
+        for (int i = 0; i < parameterName.length(); i++) {
+            char c = parameterName.charAt(i);
+            if (c == '=' || c == '"' || c == ';' || c == ',' || c == '\n' || c == '\r')
+                throw new IllegalArgumentException("Invalid parameter name " + parameterName);
+        }
+    }
+
+    /**
+     * Formats a float for a parameter script, avoiding the exponent notation
+     * of {@link Float#toString(float)}.
+     */
+    static String formatValue(float value) {
+        String str = Float.toString(value);
+        if (str.indexOf('E') < 0)
+            return str;
+        return new BigDecimal(str).toPlainString();
+    }
+}
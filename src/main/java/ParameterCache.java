@@ -0,0 +1,111 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the last known value of every registered float parameter. Reads are
+ * served from memory, and {@link #refresh()} only goes back to Voicemeeter once
+ * VBVMR_IsParametersDirty reports a change.
+ *
+ * Voicemeeter clears the dirty flag when it is read, so the cache should be the
+ * only caller of {@link Voicemeeter#areParametersDirty()}. Not thread safe.
+ */
+public class ParameterCache {
+    private final Map<String, Integer> indices = new HashMap<>();
+    private ParameterHandle[] handles = new ParameterHandle[16];
+    private float[] values = new float[16];
+    private int size;
+
+    /**
+     * Registers a parameter and fetches its current value. Registering the same
+     * name twice returns the existing index.
+     *
+     * @return The index of the parameter, for use with {@link #get(int)}
+     */
+    public int register(String parameterName) {
+        Integer existing = indices.get(parameterName);
+        if (existing != null)
+            return existing;
+
+        ParameterHandle handle = new ParameterHandle(parameterName);
+        float value = handle.getFloat();
+
+        if (size == handles.length) {
+            handles = Arrays.copyOf(handles, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        handles[size] = handle;
+        values[size] = value;
+        indices.put(parameterName, size);
+        return size++;
+    }
+
+    public int indexOf(String parameterName) {
+        Integer index = indices.get(parameterName);
+        if (index == null)
+            throw new IllegalArgumentException("Parameter " + parameterName + " is not registered");
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int index) {
+        return handle(index).getName();
+    }
+
+    public ParameterHandle getHandle(int index) {
+        return handle(index);
+    }
+
+    public float get(int index) {
+        handle(index);
+        return values[index];
+    }
+
+    public float get(String parameterName) {
+        return values[indexOf(parameterName)];
+    }
+
+    /**
+     * Writes the parameter to Voicemeeter and updates the cached value.
+     */
+    public void set(int index, float value) {
+        handle(index).setFloat(value);
+        values[index] = value;
+    }
+
+    public void set(String parameterName, float value) {
+        set(indexOf(parameterName), value);
+    }
+
+    /**
+     * Re-fetches every registered parameter if Voicemeeter reports that
+     * parameters have changed.
+     *
+     * @return Whether the parameters were dirty and have been re-fetched
+     */
+    public boolean refresh() {
+        if (!Voicemeeter.areParametersDirty())
+            return false;
+
+        reload();
+        return true;
+    }
+
+    /**
+     * Re-fetches every registered parameter, regardless of the dirty flag.
+     */
+    public void reload() {
+        for (int i = 0; i < size; i++)
+            values[i] = handles[i].getFloat();
+    }
+
+    private ParameterHandle handle(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Parameter index " + index + " is out of range");
+        return handles[index];
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Describes a change to a float parameter observed by a
+ * {@link ParameterWatcher}.
+ */
+public class ParameterChangeEvent {
+    private final String parameterName;
+    private final float oldValue;
+    private final float newValue;
+    private final long timestamp;
+
+    public ParameterChangeEvent(String parameterName, float oldValue, float newValue, long timestamp) {
+        this.parameterName = parameterName;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.timestamp = timestamp;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public float getOldValue() {
+        return oldValue;
+    }
+
+    public float getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * @return The time the change was observed, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return parameterName + ": " + oldValue + " -> " + newValue;
+    }
+}
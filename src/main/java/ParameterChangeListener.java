@@ -0,0 +1,7 @@
+/**
+ * Receives parameter changes from a {@link ParameterWatcher}. Listeners are
+ * called on the watcher thread.
+ */
+public interface ParameterChangeListener {
+    void parameterChanged(ParameterChangeEvent event);
+}
@@ -0,0 +1,65 @@
+import com.sun.jna.Pointer;
+
+/**
+ * A parameter name resolved once into native memory, along with a reusable
+ * buffer for the value. Getting or setting the parameter through a handle does
+ * not encode the name or allocate a value buffer on every call.
+ *
+ * A handle owns a single value buffer and is therefore not thread safe.
+ */
+public class ParameterHandle {
+    private final String name;
+    private final Pointer nameBuffer;
+    private final Pointer valueBuffer;
+
+    public ParameterHandle(String name) {
+        this.name = name;
+        this.nameBuffer = Voicemeeter.getStringPointer(name);
+        this.valueBuffer = Voicemeeter.getPointer(4);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public float getFloat() {
+        return Voicemeeter.getParameterFloat(nameBuffer, valueBuffer);
+    }
+
+    public void setFloat(float value) {
+        Voicemeeter.setParameterFloat(nameBuffer, value);
+    }
+
+    /**
+     * Exception-free variant of {@link #getFloat()}.
+     *
+     * @param values Array receiving the value when the status is OK
+     * @param index  Index of the array to write the value to
+     */
+    public VoicemeeterStatus tryGetFloat(float[] values, int index) {
+        VoicemeeterStatus status = Voicemeeter.tryGetParameterFloat(nameBuffer, valueBuffer);
+        if (status == VoicemeeterStatus.OK)
+            values[index] = valueBuffer.getFloat(0);
+        return status;
+    }
+
+    /**
+     * Exception-free variant of {@link #setFloat(float)}.
+     */
+    public VoicemeeterStatus trySetFloat(float value) {
+        return Voicemeeter.trySetParameterFloat(nameBuffer, value);
+    }
+
+    Pointer getNameBuffer() {
+        return nameBuffer;
+    }
+
+    Pointer getValueBuffer() {
+        return valueBuffer;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
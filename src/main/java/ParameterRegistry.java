@@ -0,0 +1,457 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typed registry of the float parameters of a Voicemeeter edition. Every name
+ * is interned into a {@link ParameterHandle} once when the registry is built,
+ * strip and bus indices are checked against the edition, and the accessors
+ * replace hand-written parameter name strings:
+ *
+ * <pre>
+ *     ParameterRegistry registry = new ParameterRegistry(VoicemeeterType.BANANA);
+ *     registry.strip(0).gain().setFloat(-6.0f);
+ *     registry.bus(1).eq(0, 2).gain().setFloat(3.0f);
+ * </pre>
+ *
+ * Parameters the edition or strip kind lacks, such as the EQ gains of a
+ * physical strip, are not interned: their accessors throw a
+ * {@link VoicemeeterException} and {@link #getHandles()} leaves them out, see
+ * {@link VoicemeeterType#hasStripParameter(int, String)}. Bus EQ cells (Banana
+ * and Potato only) are interned on first access. The recorder transport
+ * triggers hold no state, so {@link #getHandles()} leaves them out as well and
+ * a snapshot of the handles never starts playback or recording when restored.
+ * Like the handles it holds, a registry is not thread safe.
+ */
+public class ParameterRegistry {
+    public static final int EQ_CHANNELS = 8;
+    public static final int EQ_CELLS = 6;
+
+    private final VoicemeeterType type;
+    private final Map<String, ParameterHandle> handles = new LinkedHashMap<>();
+    private final Map<String, ParameterHandle> triggers = new LinkedHashMap<>();
+    private final Strip[] strips;
+    private final Bus[] buses;
+    private final Recorder recorder;
+
+    public ParameterRegistry(VoicemeeterType type) {
+        this.type = type;
+
+        strips = new Strip[type.getStrips()];
+        for (int i = 0; i < strips.length; i++)
+            strips[i] = new Strip(i);
+
+        buses = new Bus[type.getBuses()];
+        for (int i = 0; i < buses.length; i++)
+            buses[i] = new Bus(i);
+
+        recorder = type == VoicemeeterType.VOICEMEETER ? null : new Recorder();
+    }
+
+    /**
+     * Creates a registry for the edition of the running Voicemeeter.
+     */
+    public static ParameterRegistry forRunningType() {
+        return new ParameterRegistry(VoicemeeterType.fromId(Voicemeeter.getVoicemeeterType()));
+    }
+
+    public VoicemeeterType getType() {
+        return type;
+    }
+
+    public Strip strip(int index) {
+        if (index < 0 || index >= strips.length)
+            throw new IndexOutOfBoundsException("Strip " + index + " is out of range for " + type);
+        return strips[index];
+    }
+
+    public Bus bus(int index) {
+        if (index < 0 || index >= buses.length)
+            throw new IndexOutOfBoundsException("Bus " + index + " is out of range for " + type);
+        return buses[index];
+    }
+
+    public Recorder recorder() {
+        if (recorder == null)
+            throw new VoicemeeterException(type + " has no recorder");
+        return recorder;
+    }
+
+    /**
+     * Looks up an interned parameter by name, ignoring case.
+     *
+     * @throws IllegalArgumentException If the parameter is not part of the
+     *                                   registry
+     */
+    public ParameterHandle get(String parameterName) {
+        String key = parameterName.toLowerCase(Locale.ROOT);
+        ParameterHandle handle = handles.get(key);
+        if (handle == null)
+            handle = triggers.get(key);
+        if (handle == null)
+            throw new IllegalArgumentException("Unknown parameter " + parameterName + " for " + type);
+        return handle;
+    }
+
+    /**
+     * @return Every state parameter interned so far, in registration order,
+     *          without the recorder transport triggers
+     */
+    public Collection<ParameterHandle> getHandles() {
+        return Collections.unmodifiableCollection(handles.values());
+    }
+
+    private ParameterHandle intern(String parameterName) {
+        ParameterHandle handle = new ParameterHandle(parameterName);
+        handles.put(parameterName.toLowerCase(Locale.ROOT), handle);
+        return handle;
+    }
+
+    private ParameterHandle trigger(String parameterName) {
+        ParameterHandle handle = new ParameterHandle(parameterName);
+        triggers.put(parameterName.toLowerCase(Locale.ROOT), handle);
+        return handle;
+    }
+
+    private ParameterHandle[] intern(String prefix, String bus, int count) {
+        ParameterHandle[] routes = new ParameterHandle[count];
+        for (int i = 0; i < count; i++)
+            routes[i] = intern(prefix + bus + (i + 1));
+        return routes;
+    }
+
+    private static ParameterHandle route(ParameterHandle[] routes, String bus, int number) {
+        if (number < 1 || number > routes.length)
+            throw new IndexOutOfBoundsException("Bus " + bus + number + " is out of range");
+        return routes[number - 1];
+    }
+
+    public class Strip {
+        private final int index;
+        private final String prefix;
+        private final ParameterHandle mono;
+        private final ParameterHandle mute;
+        private final ParameterHandle solo;
+        private final ParameterHandle mc;
+        private final ParameterHandle gain;
+        private final ParameterHandle panX;
+        private final ParameterHandle panY;
+        private final ParameterHandle colorX;
+        private final ParameterHandle colorY;
+        private final ParameterHandle fxX;
+        private final ParameterHandle fxY;
+        private final ParameterHandle audibility;
+        private final ParameterHandle comp;
+        private final ParameterHandle gate;
+        private final ParameterHandle karaoke;
+        private final ParameterHandle limit;
+        private final ParameterHandle[] eqGain;
+        private final ParameterHandle[] a;
+        private final ParameterHandle[] b;
+
+        private Strip(int index) {
+            this.index = index;
+            this.prefix = "Strip[" + index + "].";
+            mono = intern(prefix + "Mono");
+            mute = intern(prefix + "Mute");
+            solo = intern(prefix + "Solo");
+            mc = internIfPresent("MC");
+            gain = intern(prefix + "Gain");
+            panX = intern(prefix + "Pan_x");
+            panY = intern(prefix + "Pan_y");
+            colorX = internIfPresent("Color_x");
+            colorY = internIfPresent("Color_y");
+            fxX = internIfPresent("fx_x");
+            fxY = internIfPresent("fx_y");
+            audibility = internIfPresent("Audibility");
+            comp = internIfPresent("Comp");
+            gate = internIfPresent("Gate");
+            karaoke = internIfPresent("Karaoke");
+            limit = intern(prefix + "Limit");
+            eqGain = type.hasStripParameter(index, "EqGain1") ? intern(prefix, "EqGain", 3) : null;
+            a = intern(prefix, "A", type.getPhysicalBuses());
+            b = intern(prefix, "B", type.getVirtualBuses());
+        }
+
+        private ParameterHandle internIfPresent(String parameter) {
+            return type.hasStripParameter(index, parameter) ? intern(prefix + parameter) : null;
+        }
+
+        private ParameterHandle require(ParameterHandle handle, String parameter) {
+            if (handle == null)
+                throw new VoicemeeterException(prefix + parameter + " does not exist on " + type);
+            return handle;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isVirtual() {
+            return index >= type.getPhysicalStrips();
+        }
+
+        public ParameterHandle mono() {
+            return mono;
+        }
+
+        public ParameterHandle mute() {
+            return mute;
+        }
+
+        public ParameterHandle solo() {
+            return solo;
+        }
+
+        public ParameterHandle mc() {
+            return require(mc, "MC");
+        }
+
+        public ParameterHandle gain() {
+            return gain;
+        }
+
+        public ParameterHandle panX() {
+            return panX;
+        }
+
+        public ParameterHandle panY() {
+            return panY;
+        }
+
+        public ParameterHandle colorX() {
+            return require(colorX, "Color_x");
+        }
+
+        public ParameterHandle colorY() {
+            return require(colorY, "Color_y");
+        }
+
+        public ParameterHandle fxX() {
+            return require(fxX, "fx_x");
+        }
+
+        public ParameterHandle fxY() {
+            return require(fxY, "fx_y");
+        }
+
+        public ParameterHandle audibility() {
+            return require(audibility, "Audibility");
+        }
+
+        public ParameterHandle comp() {
+            return require(comp, "Comp");
+        }
+
+        public ParameterHandle gate() {
+            return require(gate, "Gate");
+        }
+
+        public ParameterHandle karaoke() {
+            return require(karaoke, "Karaoke");
+        }
+
+        public ParameterHandle limit() {
+            return limit;
+        }
+
+        /**
+         * @param band One-based EQ band (EqGain1 to EqGain3), virtual strips
+         *              only
+         */
+        public ParameterHandle eqGain(int band) {
+            if (eqGain == null)
+                throw new VoicemeeterException(prefix + "EqGain" + band + " does not exist on " + type);
+            return route(eqGain, "EqGain", band);
+        }
+
+        /**
+         * @param bus One-based physical bus number (A1, A2, ...)
+         */
+        public ParameterHandle a(int bus) {
+            return route(a, "A", bus);
+        }
+
+        /**
+         * @param bus One-based virtual bus number (B1, B2, ...)
+         */
+        public ParameterHandle b(int bus) {
+            return route(b, "B", bus);
+        }
+    }
+
+    public class Bus {
+        private final int index;
+        private final String prefix;
+        private final ParameterHandle mono;
+        private final ParameterHandle mute;
+        private final ParameterHandle gain;
+        private final ParameterHandle eqOn;
+        private final ParameterHandle sel;
+        private final EqCell[] eqCells;
+
+        private Bus(int index) {
+            this.index = index;
+            this.prefix = "Bus[" + index + "].";
+            mono = intern(prefix + "Mono");
+            mute = intern(prefix + "Mute");
+            gain = intern(prefix + "Gain");
+            eqOn = intern(prefix + "EQ.on");
+            sel = type.hasBusParameter(index, "Sel") ? intern(prefix + "Sel") : null;
+            eqCells = type == VoicemeeterType.VOICEMEETER ? null : new EqCell[EQ_CHANNELS * EQ_CELLS];
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isVirtual() {
+            return index >= type.getPhysicalBuses();
+        }
+
+        public ParameterHandle mono() {
+            return mono;
+        }
+
+        public ParameterHandle mute() {
+            return mute;
+        }
+
+        public ParameterHandle gain() {
+            return gain;
+        }
+
+        public ParameterHandle eqOn() {
+            return eqOn;
+        }
+
+        /**
+         * @throws VoicemeeterException If the edition is not Voicemeeter Potato
+         */
+        public ParameterHandle sel() {
+            if (sel == null)
+                throw new VoicemeeterException(prefix + "Sel does not exist on " + type);
+            return sel;
+        }
+
+        /**
+         * @param channel Zero-based EQ channel
+         * @param cell    Zero-based EQ cell
+         */
+        public EqCell eq(int channel, int cell) {
+            if (eqCells == null)
+                throw new VoicemeeterException(type + " has no parametric bus EQ");
+            if (channel < 0 || channel >= EQ_CHANNELS || cell < 0 || cell >= EQ_CELLS)
+                throw new IndexOutOfBoundsException("EQ channel " + channel + " cell " + cell + " is out of range");
+
+            int i = channel * EQ_CELLS + cell;
+            if (eqCells[i] == null)
+                eqCells[i] = new EqCell(prefix + "EQ.channel[" + channel + "].cell[" + cell + "].");
+            return eqCells[i];
+        }
+    }
+
+    public class EqCell {
+        private final ParameterHandle on;
+        private final ParameterHandle type;
+        private final ParameterHandle frequency;
+        private final ParameterHandle gain;
+        private final ParameterHandle q;
+
+        private EqCell(String prefix) {
+            on = intern(prefix + "on");
+            type = intern(prefix + "type");
+            frequency = intern(prefix + "f");
+            gain = intern(prefix + "gain");
+            q = intern(prefix + "q");
+        }
+
+        public ParameterHandle on() {
+            return on;
+        }
+
+        public ParameterHandle type() {
+            return type;
+        }
+
+        public ParameterHandle frequency() {
+            return frequency;
+        }
+
+        public ParameterHandle gain() {
+            return gain;
+        }
+
+        public ParameterHandle q() {
+            return q;
+        }
+    }
+
+    public class Recorder {
+        private final ParameterHandle stop;
+        private final ParameterHandle play;
+        private final ParameterHandle record;
+        private final ParameterHandle pause;
+        private final ParameterHandle fastForward;
+        private final ParameterHandle rewind;
+        private final ParameterHandle gain;
+        private final ParameterHandle[] a;
+        private final ParameterHandle[] b;
+
+        private Recorder() {
+            stop = trigger("Recorder.stop");
+            play = trigger("Recorder.play");
+            record = trigger("Recorder.record");
+            pause = trigger("Recorder.pause");
+            fastForward = trigger("Recorder.ff");
+            rewind = trigger("Recorder.rew");
+            gain = intern("Recorder.gain");
+            a = intern("Recorder.", "A", type.getPhysicalBuses());
+            b = intern("Recorder.", "B", type.getVirtualBuses());
+        }
+
+        public ParameterHandle stop() {
+            return stop;
+        }
+
+        public ParameterHandle play() {
+            return play;
+        }
+
+        public ParameterHandle record() {
+            return record;
+        }
+
+        public ParameterHandle pause() {
+            return pause;
+        }
+
+        public ParameterHandle fastForward() {
+            return fastForward;
+        }
+
+        public ParameterHandle rewind() {
+            return rewind;
+        }
+
+        public ParameterHandle gain() {
+            return gain;
+        }
+
+        /**
+         * @param bus One-based physical bus number (A1, A2, ...)
+         */
+        public ParameterHandle a(int bus) {
+            return route(a, "A", bus);
+        }
+
+        /**
+         * @param bus One-based virtual bus number (B1, B2, ...)
+         */
+        public ParameterHandle b(int bus) {
+            return route(b, "B", bus);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Parser for VBVMR_SetParameters scripts. Assignments have the form
+ * {@code name=value} and are separated by ',', ';' or new lines. String values
+ * are enclosed in double quotes, which may contain separators.
+ */
+class ParameterScript {
+    interface Assignment {
+        /**
+         * @param name  Parameter name, trimmed
+         * @param value Value, trimmed and without enclosing quotes
+         * @return Whether the assignment was accepted
+         */
+        boolean assign(String name, String value);
+    }
+
+    private ParameterScript() {
+    }
+
+    /**
+     * Parses a script, passing each assignment to the handler. Parsing stops at
+     * the first malformed or rejected assignment.
+     *
+     * @return 0 if every assignment was accepted, otherwise the one-based line
+     *          number of the failing assignment
+     */
+    static int parse(String script, Assignment handler) {
+        int line = 1;
+        int start = 0;
+        boolean quoted = false;
+
+        for (int i = 0; i <= script.length(); i++) {
+            char c = i < script.length() ? script.charAt(i) : '\n';
+            if (c == '"') {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted && i < script.length())
+                continue;
+            if (c != '\n' && c != ';' && c != ',')
+                continue;
+
+            if (!statement(script.substring(start, i), handler))
+                return line;
+
+            if (c == '\n')
+                line++;
+            start = i + 1;
+            quoted = false;
+        }
+
+        return 0;
+    }
+
+    private static boolean statement(String statement, Assignment handler) {
+        String trimmed = statement.trim();
+        if (trimmed.isEmpty())
+            return true;
+
+        int equals = trimmed.indexOf('=');
+        if (equals <= 0)
+            return false;
+
+        String name = trimmed.substring(0, equals).trim();
+        String value = trimmed.substring(equals + 1).trim();
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"')
+            value = value.substring(1, value.length() - 1);
+
+        return handler.assign(name, value);
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Polls Voicemeeter on a background thread and notifies listeners when a
+ * subscribed float parameter changes. Parameters are only re-read when the
+ * dirty flag is set, and the poll interval doubles while nothing changes, up to
+ * the maximum idle interval.
+ *
+ * The watcher reads the dirty flag through its own {@link ParameterCache}, so
+ * it should be the only consumer of {@link Voicemeeter#areParametersDirty()}.
+ *
+ * Failed polls, unknown subscribed parameters and exceptions thrown by
+ * listeners are passed to the error handler, see
+ * {@link Voicemeeter#setErrorHandler(Consumer)}.
+ */
+public class ParameterWatcher {
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 10;
+    public static final long DEFAULT_MAX_IDLE_INTERVAL_MILLIS = 250;
+
+    private final long pollIntervalMillis;
+    private final long maxIdleIntervalMillis;
+    private final ParameterCache cache = new ParameterCache();
+    private final Queue<String> pendingSubscriptions = new ConcurrentLinkedQueue<>();
+    private final List<ParameterChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<String> retrySubscriptions = new ArrayList<>();
+    private final float[] probe = new float[1];
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+    private float[] previous = new float[16];
+    private Thread thread;
+
+    public ParameterWatcher() {
+        this(DEFAULT_POLL_INTERVAL_MILLIS, DEFAULT_MAX_IDLE_INTERVAL_MILLIS);
+    }
+
+    public ParameterWatcher(long pollIntervalMillis, long maxIdleIntervalMillis) {
+        if (pollIntervalMillis <= 0 || maxIdleIntervalMillis < pollIntervalMillis)
+            throw new IllegalArgumentException("Invalid poll intervals " + pollIntervalMillis + "/" + maxIdleIntervalMillis);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxIdleIntervalMillis = maxIdleIntervalMillis;
+    }
+
+    /**
+     * Subscribes to a float parameter. The parameter is registered on the
+     * watcher thread before its next poll. Unknown parameters are dropped and
+     * reported to the error handler.
+     */
+    public void subscribe(String parameterName) {
+        pendingSubscriptions.add(parameterName);
+    }
+
+    /**
+     * Replaces the library-wide error handler for this watcher.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    public void addListener(ParameterChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ParameterChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        thread = new Thread(this::run, "Voicemeeter parameter watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    private void run() {
+        long interval = pollIntervalMillis;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean changed;
+            try {
+                registerPendingSubscriptions();
+                changed = poll();
+            } catch (VoicemeeterException e) {
+                errorHandler.accept(e);
+                changed = false;
+            }
+
+            interval = changed ? pollIntervalMillis : Math.min(interval * 2, maxIdleIntervalMillis);
+
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void registerPendingSubscriptions() {
+        String parameterName;
+        while ((parameterName = pendingSubscriptions.poll()) != null) {
+            VoicemeeterStatus status = new ParameterHandle(parameterName).tryGetFloat(probe, 0);
+            if (status == VoicemeeterStatus.NO_SERVER) {
+                // Retried on the next cycle, once Voicemeeter may be back
+                retrySubscriptions.add(parameterName);
+                continue;
+            }
+            if (!status.isOk()) {
+                errorHandler.accept(new VoicemeeterException("Unable to subscribe to " + parameterName + ": " + status.getMessage()));
+                continue;
+            }
+
+            int index;
+            try {
+                index = cache.register(parameterName);
+            } catch (VoicemeeterException e) {
+                retrySubscriptions.add(parameterName);
+                errorHandler.accept(e);
+                continue;
+            }
+            if (index >= previous.length)
+                previous = Arrays.copyOf(previous, previous.length * 2);
+            previous[index] = cache.get(index);
+        }
+
+        pendingSubscriptions.addAll(retrySubscriptions);
+        retrySubscriptions.clear();
+    }
+
+    private boolean poll() {
+        if (!cache.refresh())
+            return false;
+
+        long timestamp = System.currentTimeMillis();
+        boolean changed = false;
+
+        for (int i = 0; i < cache.size(); i++) {
+            float value = cache.get(i);
+            if (Float.compare(previous[i], value) != 0) {
+                fire(new ParameterChangeEvent(cache.getName(i), previous[i], value, timestamp));
+                previous[i] = value;
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    private void fire(ParameterChangeEvent event) {
+        for (ParameterChangeListener listener : listeners) {
+            try {
+                listener.parameterChanged(event);
+            } catch (RuntimeException e) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Shape of a {@link RampScheduler} fade between two parameter values.
+ */
+public enum RampCurve {
+    /**
+     * Moves the value in equal steps.
+     */
+    LINEAR {
+        @Override
+        float interpolate(float from, float to, float t) {
+            return from + (to - from) * t;
+        }
+    },
+    /**
+     * Moves the value by an equal ratio per step, for frequencies and other
+     * values with a logarithmic scale. Falls back to {@link #LINEAR} when the
+     * values are zero or of opposite signs.
+     */
+    EXPONENTIAL {
+        @Override
+        float interpolate(float from, float to, float t) {
+            if (from == 0 || to == 0 || (from < 0) != (to < 0))
+                return LINEAR.interpolate(from, to, t);
+            return (float) (from * Math.pow(to / from, t));
+        }
+    },
+    /**
+     * Treats the values as gains in dB and moves the amplitude in equal steps,
+     * the natural shape for fading a strip or bus gain in or out. Gains are
+     * floored at {@link #SILENCE_DB}.
+     */
+    DB {
+        @Override
+        float interpolate(float from, float to, float t) {
+            double fromAmplitude = Math.pow(10, Math.max(from, SILENCE_DB) / 20);
+            double toAmplitude = Math.pow(10, Math.max(to, SILENCE_DB) / 20);
+            double amplitude = fromAmplitude + (toAmplitude - fromAmplitude) * t;
+            return (float) Math.max(20 * Math.log10(amplitude), SILENCE_DB);
+        }
+    };
+
+    /**
+     * Lowest strip and bus gain in Voicemeeter.
+     */
+    public static final float SILENCE_DB = -60;
+
+    /**
+     * @param t Progress of the ramp, from 0 to 1
+     */
+    abstract float interpolate(float from, float to, float t);
+}
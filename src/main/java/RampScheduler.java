@@ -0,0 +1,244 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs any number of concurrent parameter fades on one timer thread. Every
+ * tick computes the value of each active ramp and sends them all to
+ * Voicemeeter through a {@link ParameterBatcher}, so simultaneous fades cost a
+ * single VBVMR_SetParameters call per tick rather than a thread and a call per
+ * parameter:
+ *
+ * <pre>
+ *     RampScheduler scheduler = new RampScheduler(100);
+ *     scheduler.start();
+ *     scheduler.ramp("Strip[0].gain", 0, -60, 2000, RampCurve.DB);
+ * </pre>
+ *
+ * Ramp progress follows the clock rather than the tick count, so a late tick
+ * does not stretch a fade. Starting a ramp on a parameter that is already
+ * ramping replaces the previous ramp. The scheduling jitter of the ticks is
+ * exposed through {@link #getMaxJitterNanos()} and
+ * {@link #getMeanJitterNanos()}. Failed ticks are passed to the error handler,
+ * see {@link Voicemeeter#setErrorHandler(Consumer)}.
+ */
+public class RampScheduler {
+    private final ParameterBatcher batcher = new ParameterBatcher();
+    private final Map<String, Ramp> ramps = new LinkedHashMap<>();
+    private final long period;
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    private volatile long ticks;
+    private volatile long maxJitter;
+    private volatile long totalJitter;
+
+    /**
+     * @param rate Ticks per second
+     */
+    public RampScheduler(int rate) {
+        if (rate <= 0)
+            throw new IllegalArgumentException("Invalid ramp rate " + rate);
+        this.period = 1000000000L / rate;
+    }
+
+    /**
+     * Fades a parameter from one value to another, replacing any ramp already
+     * running on the parameter.
+     *
+     * @param durationMillis Length of the fade; the target is set on the next
+     *                        tick if it is zero
+     */
+    public void ramp(String parameterName, float from, float to, long durationMillis, RampCurve curve) {
+        if (durationMillis < 0)
+            throw new IllegalArgumentException("Invalid ramp duration " + durationMillis);
+
+        Ramp ramp = new Ramp(parameterName, from, to, System.nanoTime(), durationMillis * 1000000L, curve);
+        synchronized (this) {
+            ramps.put(parameterName, ramp);
+        }
+
+        Thread thread = this.thread;
+        if (thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    /**
+     * Fades a parameter from its current value, read from Voicemeeter.
+     */
+    public void ramp(String parameterName, float to, long durationMillis, RampCurve curve) {
+        ramp(parameterName, Voicemeeter.getParameterFloat(parameterName), to, durationMillis, curve);
+    }
+
+    /**
+     * Stops a ramp, leaving the parameter at its last written value.
+     *
+     * @return Whether the parameter was ramping
+     */
+    public synchronized boolean cancel(String parameterName) {
+        return ramps.remove(parameterName) != null;
+    }
+
+    public synchronized void cancelAll() {
+        ramps.clear();
+    }
+
+    public synchronized boolean isRamping(String parameterName) {
+        return ramps.containsKey(parameterName);
+    }
+
+    /**
+     * @return The number of active ramps
+     */
+    public synchronized int size() {
+        return ramps.size();
+    }
+
+    /**
+     * Replaces the library-wide error handler for this scheduler.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        running = true;
+        thread = new Thread(this::run, "Voicemeeter ramp scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Writes the current value of every active ramp in one batch and drops
+     * the ramps that have reached their target. Called by the scheduler
+     * thread, or directly when the scheduler is not started.
+     *
+     * @return The number of VBVMR_SetParameters calls made
+     */
+    public int tick() {
+        long now = System.nanoTime();
+
+        synchronized (this) {
+            Iterator<Ramp> iterator = ramps.values().iterator();
+            while (iterator.hasNext()) {
+                Ramp ramp = iterator.next();
+                long elapsed = now - ramp.start;
+                if (elapsed >= ramp.duration) {
+                    batcher.set(ramp.parameterName, ramp.to);
+                    iterator.remove();
+                } else {
+                    float t = (float) elapsed / ramp.duration;
+                    batcher.set(ramp.parameterName, ramp.curve.interpolate(ramp.from, ramp.to, t));
+                }
+            }
+        }
+
+        return batcher.flush();
+    }
+
+    /**
+     * @return The number of ticks that had active ramps
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return The largest delay of a tick behind its schedule
+     */
+    public long getMaxJitterNanos() {
+        return maxJitter;
+    }
+
+    /**
+     * @return The mean delay of the ticks behind their schedule
+     */
+    public long getMeanJitterNanos() {
+        long ticks = this.ticks;
+        return ticks == 0 ? 0 : totalJitter / ticks;
+    }
+
+    public synchronized void resetStatistics() {
+        ticks = 0;
+        maxJitter = 0;
+        totalJitter = 0;
+    }
+
+    private void run() {
+        long deadline = System.nanoTime();
+
+        while (running) {
+            boolean idle;
+            synchronized (this) {
+                idle = ramps.isEmpty();
+            }
+            if (idle) {
+                // Sleep until the next ramp, then restart the schedule
+                LockSupport.park(this);
+                deadline = System.nanoTime();
+                continue;
+            }
+
+            recordJitter(System.nanoTime() - deadline);
+            try {
+                tick();
+            } catch (VoicemeeterException e) {
+                errorHandler.accept(e);
+            }
+
+            deadline += period;
+            long wait = deadline - System.nanoTime();
+            if (wait > 0)
+                LockSupport.parkNanos(this, wait);
+            else
+                deadline = System.nanoTime();
+        }
+    }
+
+    private synchronized void recordJitter(long jitter) {
+        ticks++;
+        totalJitter += jitter;
+        if (jitter > maxJitter)
+            maxJitter = jitter;
+    }
+
+    private static class Ramp {
+        private final String parameterName;
+        private final float from;
+        private final float to;
+        private final long start;
+        private final long duration;
+        private final RampCurve curve;
+
+        private Ramp(String parameterName, float from, float to, long start, long duration, RampCurve curve) {
+            this.parameterName = parameterName;
+            this.from = from;
+            this.to = to;
+            this.start = start;
+            this.duration = duration;
+            this.curve = curve;
+        }
+    }
+}
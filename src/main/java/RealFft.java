@@ -0,0 +1,107 @@
+/**
+ * Fast Fourier transform of real input, computed as a complex transform of
+ * half the size followed by a split step. Twiddle factors, the bit reversal
+ * permutation and the work buffers are allocated once per instance, so
+ * transforms do not allocate. Instances are not thread safe.
+ */
+class RealFft {
+    private final int size;
+    private final int half;
+    private final int[] reversed;
+    // Twiddles of the half size complex transform, exp(-2 pi i j / half)
+    private final float[] cos;
+    private final float[] sin;
+    // Twiddles of the split step, exp(-2 pi i k / size)
+    private final float[] splitCos;
+    private final float[] splitSin;
+    private final float[] re;
+    private final float[] im;
+
+    /**
+     * @param size Number of real input samples, a power of two of at least 4
+     */
+    RealFft(int size) {
+        if (size < 4 || Integer.bitCount(size) != 1)
+            throw new IllegalArgumentException("FFT size " + size + " is not a power of two of at least 4");
+
+        this.size = size;
+        this.half = size / 2;
+        this.reversed = new int[half];
+        this.cos = new float[half / 2];
+        this.sin = new float[half / 2];
+        this.splitCos = new float[half + 1];
+        this.splitSin = new float[half + 1];
+        this.re = new float[half];
+        this.im = new float[half];
+
+        int bits = Integer.numberOfTrailingZeros(half);
+        for (int i = 0; i < half; i++)
+            reversed[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        for (int j = 0; j < half / 2; j++) {
+            double angle = -2 * Math.PI * j / half;
+            cos[j] = (float) Math.cos(angle);
+            sin[j] = (float) Math.sin(angle);
+        }
+        for (int k = 0; k <= half; k++) {
+            double angle = -2 * Math.PI * k / size;
+            splitCos[k] = (float) Math.cos(angle);
+            splitSin[k] = (float) Math.sin(angle);
+        }
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * @return The number of bins of the transform, size / 2 + 1
+     */
+    int getBins() {
+        return half + 1;
+    }
+
+    /**
+     * Transforms size samples and writes the unscaled magnitude of each bin,
+     * from 0 Hz up to the Nyquist frequency.
+     */
+    void magnitudes(float[] samples, float[] magnitudes) {
+        // Pack even samples as real and odd samples as imaginary parts
+        for (int n = 0; n < half; n++) {
+            int target = reversed[n];
+            re[target] = samples[2 * n];
+            im[target] = samples[2 * n + 1];
+        }
+
+        for (int length = 2; length <= half; length <<= 1) {
+            int span = length >> 1;
+            int step = half / length;
+            for (int start = 0; start < half; start += length) {
+                for (int j = 0; j < span; j++) {
+                    float wr = cos[j * step];
+                    float wi = sin[j * step];
+                    int a = start + j;
+                    int b = a + span;
+                    float tr = re[b] * wr - im[b] * wi;
+                    float ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+
+        // Separate the spectra of the even and odd samples and combine them
+        for (int k = 0; k <= half; k++) {
+            int a = k == half ? 0 : k;
+            int b = k == 0 ? 0 : half - k;
+            float evenRe = (re[a] + re[b]) * 0.5f;
+            float evenIm = (im[a] - im[b]) * 0.5f;
+            float oddRe = (im[a] + im[b]) * 0.5f;
+            float oddIm = (re[b] - re[a]) * 0.5f;
+            float xr = evenRe + oddRe * splitCos[k] - oddIm * splitSin[k];
+            float xi = evenIm + oddRe * splitSin[k] + oddIm * splitCos[k];
+            magnitudes[k] = (float) Math.sqrt(xr * xr + xi * xi);
+        }
+    }
+}
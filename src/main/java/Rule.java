@@ -0,0 +1,59 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A named condition with the actions to run when it becomes true and when it
+ * becomes false again:
+ *
+ * <pre>
+ *     new Rule("obs", RuleCondition.processRunning("obs64.exe"))
+ *             .whenTrue(RuleAction.set("Strip[0].gain", -6), RuleAction.set("Strip[0].comp", 4))
+ *             .whenFalse(RuleAction.set("Strip[0].gain", 0), RuleAction.set("Strip[0].comp", 0));
+ * </pre>
+ *
+ * Actions run on transitions only, not while the condition stays the same.
+ */
+public class Rule {
+    private final String name;
+    private final RuleCondition condition;
+    private final List<RuleAction> trueActions = new ArrayList<>();
+    private final List<RuleAction> falseActions = new ArrayList<>();
+
+    public Rule(String name, RuleCondition condition) {
+        this.name = name;
+        this.condition = condition;
+    }
+
+    public Rule whenTrue(RuleAction... actions) {
+        trueActions.addAll(Arrays.asList(actions));
+        return this;
+    }
+
+    public Rule whenFalse(RuleAction... actions) {
+        falseActions.addAll(Arrays.asList(actions));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RuleCondition getCondition() {
+        return condition;
+    }
+
+    public List<RuleAction> getTrueActions() {
+        return Collections.unmodifiableList(trueActions);
+    }
+
+    public List<RuleAction> getFalseActions() {
+        return Collections.unmodifiableList(falseActions);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Action of a {@link Rule}. Actions run on the rule engine thread and queue
+ * their writes on the engine's batcher, which is flushed once per evaluation
+ * cycle, or start fades on its ramp scheduler.
+ */
+public interface RuleAction {
+    /**
+     * @param ramps The engine's ramp scheduler, or null if it has none
+     */
+    void apply(ParameterBatcher batcher, RampScheduler ramps);
+
+    static RuleAction set(String parameterName, float value) {
+        return (batcher, ramps) -> {
+            if (ramps != null)
+                ramps.cancel(parameterName);
+            batcher.set(parameterName, value);
+        };
+    }
+
+    static RuleAction set(String parameterName, String value) {
+        return (batcher, ramps) -> batcher.set(parameterName, value);
+    }
+
+    /**
+     * Fades a parameter from its current value.
+     */
+    static RuleAction ramp(String parameterName, float to, long durationMillis, RampCurve curve) {
+        return (batcher, ramps) -> {
+            if (ramps == null)
+                throw new VoicemeeterException("The rule engine has no ramp scheduler");
+            ramps.ramp(parameterName, to, durationMillis, curve);
+        };
+    }
+}
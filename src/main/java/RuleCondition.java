@@ -0,0 +1,138 @@
+/**
+ * Condition of a {@link Rule}, evaluated against the facts of a
+ * {@link RuleEngine}. A condition is only re-evaluated when one of the facts
+ * named by {@link #getKeys()} changes, so it must not depend on anything else.
+ */
+public interface RuleCondition {
+    /**
+     * @return The keys of the facts the condition reads
+     */
+    String[] getKeys();
+
+    boolean test(RuleEngine engine);
+
+    /**
+     * @return A condition true while the fact is above the threshold
+     */
+    static RuleCondition above(String key, float threshold) {
+        return new RuleCondition() {
+            @Override
+            public String[] getKeys() {
+                return new String[]{key};
+            }
+
+            @Override
+            public boolean test(RuleEngine engine) {
+                return engine.getFact(key) > threshold;
+            }
+        };
+    }
+
+    /**
+     * @return A condition true while the fact is below the threshold
+     */
+    static RuleCondition below(String key, float threshold) {
+        return not(atLeast(key, threshold));
+    }
+
+    static RuleCondition atLeast(String key, float threshold) {
+        return new RuleCondition() {
+            @Override
+            public String[] getKeys() {
+                return new String[]{key};
+            }
+
+            @Override
+            public boolean test(RuleEngine engine) {
+                return engine.getFact(key) >= threshold;
+            }
+        };
+    }
+
+    /**
+     * @param process Process name, compared ignoring case
+     */
+    static RuleCondition processRunning(String process) {
+        return atLeast(RuleEngine.processKey(process), 1);
+    }
+
+    /**
+     * @param thresholdDb Threshold in dB, compared to the decaying peak level
+     */
+    static RuleCondition levelAbove(int levelType, int channel, float thresholdDb) {
+        return above(RuleEngine.levelKey(levelType, channel), (float) Math.pow(10, thresholdDb / 20));
+    }
+
+    static RuleCondition parameterAbove(String parameterName, float threshold) {
+        return above(RuleEngine.parameterKey(parameterName), threshold);
+    }
+
+    static RuleCondition parameterBelow(String parameterName, float threshold) {
+        return below(RuleEngine.parameterKey(parameterName), threshold);
+    }
+
+    /**
+     * @return A condition true while the last velocity of a note is non-zero
+     */
+    static RuleCondition noteOn(int channel, int note) {
+        return atLeast(RuleEngine.midiKey(MidiMessage.NOTE_ON, channel, note), 1);
+    }
+
+    /**
+     * @return A condition true while the last value of a controller is at
+     *          least the threshold
+     */
+    static RuleCondition controllerAtLeast(int channel, int controller, int threshold) {
+        return atLeast(RuleEngine.midiKey(MidiMessage.CONTROL_CHANGE, channel, controller), threshold);
+    }
+
+    static RuleCondition not(RuleCondition condition) {
+        return new RuleCondition() {
+            @Override
+            public String[] getKeys() {
+                return condition.getKeys();
+            }
+
+            @Override
+            public boolean test(RuleEngine engine) {
+                return !condition.test(engine);
+            }
+        };
+    }
+
+    static RuleCondition and(RuleCondition... conditions) {
+        return new RuleCondition() {
+            @Override
+            public String[] getKeys() {
+                return RuleEngine.keysOf(conditions);
+            }
+
+            @Override
+            public boolean test(RuleEngine engine) {
+                for (RuleCondition condition : conditions) {
+                    if (!condition.test(engine))
+                        return false;
+                }
+                return true;
+            }
+        };
+    }
+
+    static RuleCondition or(RuleCondition... conditions) {
+        return new RuleCondition() {
+            @Override
+            public String[] getKeys() {
+                return RuleEngine.keysOf(conditions);
+            }
+
+            @Override
+            public boolean test(RuleEngine engine) {
+                for (RuleCondition condition : conditions) {
+                    if (condition.test(engine))
+                        return true;
+                }
+                return false;
+            }
+        };
+    }
+}
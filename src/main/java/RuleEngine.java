@@ -0,0 +1,453 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Switches mixer settings when conditions change, replacing hand-written
+ * polling loops:
+ *
+ * <pre>
+ *     RuleEngine engine = new RuleEngine();
+ *     engine.addRule(new Rule("obs", RuleCondition.processRunning("obs64.exe"))
+ *             .whenTrue(RuleAction.set("Strip[0].gain", -6))
+ *             .whenFalse(RuleAction.set("Strip[0].gain", 0)));
+ *     engine.watchProcesses(() -> Arrays.asList(getOpenPrograms()), 1000);
+ *     engine.start();
+ * </pre>
+ *
+ * Rules read facts, float values identified by key, which are fed by the
+ * adapters for {@link ParameterWatcher}, {@link LevelMeter}, {@link MidiInput}
+ * and process lists, or set directly with {@link #set(String, float)}. A fact
+ * change only marks the rules reading it for evaluation, and the engine thread
+ * wakes up right away to evaluate just those rules. The writes of every rule
+ * that changed in a cycle are sent in one VBVMR_SetParameters call.
+ *
+ * Actions run without holding the engine lock, so they may be slow or set
+ * facts themselves without stalling the adapters. Exceptions thrown by actions
+ * and conditions, failed evaluations and failed process polls are passed to
+ * the error handler, see {@link Voicemeeter#setErrorHandler(Consumer)}.
+ */
+public class RuleEngine {
+    private static final String PROCESS_PREFIX = "process:";
+    private static final String LEVEL_PREFIX = "level:";
+    private static final String PARAMETER_PREFIX = "parameter:";
+
+    private final ParameterBatcher batcher = new ParameterBatcher();
+    private final RampScheduler ramps;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<List<RuleState>> dependents = new ArrayList<>();
+    private float[] facts = new float[16];
+
+    private final Map<String, Integer> processSlots = new HashMap<>();
+    private final List<String> parameterNames = new ArrayList<>();
+    private final List<ParameterWatcher> watchers = new ArrayList<>();
+    private int[] levelSlots = new int[0];
+    private int[] levelTypes = new int[0];
+    private int[] levelChannels = new int[0];
+
+    private final List<RuleState> rules = new ArrayList<>();
+    private final Queue<RuleState> dirtyRules = new ArrayDeque<>();
+
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+    private volatile Thread thread;
+    private volatile boolean running;
+    private Thread processThread;
+
+    public RuleEngine() {
+        this(null);
+    }
+
+    /**
+     * @param ramps Scheduler for {@link RuleAction#ramp} actions
+     */
+    public RuleEngine(RampScheduler ramps) {
+        this.ramps = ramps;
+    }
+
+    public static String processKey(String process) {
+        return PROCESS_PREFIX + process.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The key of a level fact, holding the decaying peak level
+     */
+    public static String levelKey(int levelType, int channel) {
+        return LEVEL_PREFIX + levelType + ":" + channel;
+    }
+
+    /**
+     * @param command NOTE_ON, CONTROL_CHANGE or another channel message
+     *                command; note offs update the NOTE_ON fact with 0
+     * @return The key of a MIDI fact, holding the last second data byte
+     */
+    public static String midiKey(int command, int channel, int data1) {
+        return "midi:" + command + ":" + channel + ":" + data1;
+    }
+
+    public static String parameterKey(String parameterName) {
+        return PARAMETER_PREFIX + parameterName;
+    }
+
+    static String[] keysOf(RuleCondition... conditions) {
+        Set<String> keys = new HashSet<>();
+        for (RuleCondition condition : conditions)
+            keys.addAll(Arrays.asList(condition.getKeys()));
+        return keys.toArray(new String[0]);
+    }
+
+    /**
+     * Replaces the library-wide error handler for this engine.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    public synchronized void addRule(Rule rule) {
+        RuleState state = new RuleState(rule);
+        rules.add(state);
+        for (String key : rule.getCondition().getKeys())
+            dependents.get(slot(key)).add(state);
+
+        markDirty(state);
+        wake();
+    }
+
+    public synchronized boolean removeRule(Rule rule) {
+        for (int i = 0; i < rules.size(); i++) {
+            RuleState state = rules.get(i);
+            if (state.rule != rule)
+                continue;
+
+            rules.remove(i);
+            dirtyRules.remove(state);
+            for (List<RuleState> states : dependents)
+                states.remove(state);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the condition of the rule held at its last evaluation,
+     *          once the actions of that evaluation have run
+     */
+    public synchronized boolean isActive(Rule rule) {
+        for (RuleState state : rules) {
+            if (state.rule == rule)
+                return state.active;
+        }
+        return false;
+    }
+
+    /**
+     * @return The value of a fact, or 0 if it has not been set
+     */
+    public synchronized float getFact(String key) {
+        Integer slot = slots.get(key);
+        return slot == null ? 0 : facts[slot];
+    }
+
+    /**
+     * Sets a fact, marking the rules that read it for evaluation. Facts no
+     * rule reads are ignored.
+     */
+    public synchronized void set(String key, float value) {
+        Integer slot = slots.get(key);
+        if (slot != null && update(slot, value))
+            wake();
+    }
+
+    /**
+     * Feeds the parameters read by rules from a watcher, subscribing it to
+     * them.
+     */
+    public synchronized void watch(ParameterWatcher watcher) {
+        watchers.add(watcher);
+        for (String parameterName : parameterNames)
+            watcher.subscribe(parameterName);
+        watcher.addListener(event -> set(parameterKey(event.getParameterName()), event.getNewValue()));
+    }
+
+    /**
+     * Feeds the decaying peak levels read by rules from a meter.
+     */
+    public void watch(LevelMeter meter) {
+        meter.addListener(this::levelsUpdated);
+    }
+
+    public void watch(MidiInput input) {
+        input.addListener(this::midiReceived);
+    }
+
+    /**
+     * Polls a list of running process names on a background thread and feeds
+     * the processes read by rules. Replaces any previously watched list.
+     */
+    public synchronized void watchProcesses(Supplier<? extends Collection<String>> processes, long periodMillis) {
+        stopProcessThread();
+
+        processThread = new Thread(() -> pollProcesses(processes, periodMillis), "Voicemeeter rule engine processes");
+        processThread.setDaemon(true);
+        processThread.start();
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        running = true;
+        thread = new Thread(this::run, "Voicemeeter rule engine");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the engine and process polling threads. Facts keep being updated
+     * by the adapters, and rules are evaluated again once restarted.
+     */
+    public void stop() {
+        Thread stopping;
+        synchronized (this) {
+            stopProcessThread();
+            stopping = thread;
+            thread = null;
+            running = false;
+        }
+        if (stopping == null)
+            return;
+
+        LockSupport.unpark(stopping);
+        try {
+            stopping.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Evaluates the rules whose facts changed and sends the writes of their
+     * actions in one batch. Called by the engine thread, or directly when the
+     * engine is not started. A rule reports its new state from
+     * {@link #isActive(Rule)} once its actions have run.
+     *
+     * @return The number of rules whose condition changed
+     */
+    public int evaluate() {
+        List<RuleState> transitions = null;
+        List<RuntimeException> failures = null;
+
+        synchronized (this) {
+            RuleState state;
+            while ((state = dirtyRules.poll()) != null) {
+                state.dirty = false;
+                boolean active;
+                try {
+                    active = state.rule.getCondition().test(this);
+                } catch (RuntimeException e) {
+                    // The rule keeps its state until its facts change again
+                    if (failures == null)
+                        failures = new ArrayList<>();
+                    failures.add(e);
+                    continue;
+                }
+                if (active == state.target)
+                    continue;
+
+                state.target = active;
+                if (transitions == null)
+                    transitions = new ArrayList<>();
+                transitions.add(state);
+            }
+        }
+        if (failures != null) {
+            for (RuntimeException e : failures)
+                errorHandler.accept(e);
+        }
+        if (transitions == null)
+            return 0;
+
+        try {
+            for (RuleState state : transitions) {
+                for (RuleAction action : state.target ? state.rule.getTrueActions() : state.rule.getFalseActions()) {
+                    try {
+                        action.apply(batcher, ramps);
+                    } catch (RuntimeException e) {
+                        errorHandler.accept(e);
+                    }
+                }
+            }
+            batcher.flush();
+        } finally {
+            synchronized (this) {
+                for (RuleState state : transitions)
+                    state.active = state.target;
+            }
+        }
+        return transitions.size();
+    }
+
+    private void run() {
+        while (running) {
+            boolean idle;
+            synchronized (this) {
+                idle = dirtyRules.isEmpty();
+            }
+            if (idle) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            try {
+                evaluate();
+            } catch (RuntimeException e) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+
+    private void wake() {
+        Thread thread = this.thread;
+        if (thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    private int slot(String key) {
+        Integer existing = slots.get(key);
+        if (existing != null)
+            return existing;
+
+        int slot = slots.size();
+        slots.put(key, slot);
+        dependents.add(new ArrayList<>());
+        if (slot == facts.length)
+            facts = Arrays.copyOf(facts, slot * 2);
+
+        if (key.startsWith(PROCESS_PREFIX)) {
+            processSlots.put(key.substring(PROCESS_PREFIX.length()), slot);
+        } else if (key.startsWith(PARAMETER_PREFIX)) {
+            String parameterName = key.substring(PARAMETER_PREFIX.length());
+            parameterNames.add(parameterName);
+            for (ParameterWatcher watcher : watchers)
+                watcher.subscribe(parameterName);
+        } else if (key.startsWith(LEVEL_PREFIX)) {
+            String[] parts = key.substring(LEVEL_PREFIX.length()).split(":");
+            int levels = levelSlots.length;
+            levelSlots = Arrays.copyOf(levelSlots, levels + 1);
+            levelTypes = Arrays.copyOf(levelTypes, levels + 1);
+            levelChannels = Arrays.copyOf(levelChannels, levels + 1);
+            levelSlots[levels] = slot;
+            levelTypes[levels] = Integer.parseInt(parts[0]);
+            levelChannels[levels] = Integer.parseInt(parts[1]);
+        }
+        return slot;
+    }
+
+    /**
+     * @return Whether a rule was marked for evaluation
+     */
+    private boolean update(int slot, float value) {
+        if (facts[slot] == value)
+            return false;
+        facts[slot] = value;
+
+        boolean marked = false;
+        for (RuleState state : dependents.get(slot))
+            marked |= markDirty(state);
+        return marked;
+    }
+
+    private boolean markDirty(RuleState state) {
+        if (state.dirty)
+            return false;
+        state.dirty = true;
+        dirtyRules.add(state);
+        return true;
+    }
+
+    private void levelsUpdated(MeterSnapshot snapshot) {
+        boolean marked = false;
+        synchronized (this) {
+            for (int i = 0; i < levelSlots.length; i++) {
+                int levelType = levelTypes[i];
+                if (levelChannels[i] < snapshot.getChannels(levelType))
+                    marked |= update(levelSlots[i], snapshot.getPeak(levelType, levelChannels[i]));
+            }
+        }
+        if (marked)
+            wake();
+    }
+
+    private void midiReceived(MidiMessage message) {
+        int command = message.getCommand();
+        if (command >= 0xF0)
+            return;
+
+        if (command == MidiMessage.NOTE_OFF)
+            set(midiKey(MidiMessage.NOTE_ON, message.getChannel(), message.getData1()), 0);
+        else
+            set(midiKey(command, message.getChannel(), message.getData1()), message.getData2());
+    }
+
+    private void pollProcesses(Supplier<? extends Collection<String>> processes, long periodMillis) {
+        Set<String> running = new HashSet<>();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            running.clear();
+            try {
+                for (String process : processes.get())
+                    running.add(process.toLowerCase(Locale.ROOT));
+
+                boolean marked = false;
+                synchronized (this) {
+                    for (Map.Entry<String, Integer> entry : processSlots.entrySet())
+                        marked |= update(entry.getValue(), running.contains(entry.getKey()) ? 1 : 0);
+                }
+                if (marked)
+                    wake();
+            } catch (RuntimeException e) {
+                // The process facts keep their values until the next poll
+                errorHandler.accept(e);
+            }
+
+            try {
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void stopProcessThread() {
+        if (processThread == null)
+            return;
+
+        processThread.interrupt();
+        processThread = null;
+    }
+
+    private static class RuleState {
+        private final Rule rule;
+        // Condition at the last evaluation, and once its actions have run
+        private boolean target;
+        private boolean active;
+        private boolean dirty;
+
+        private RuleState(Rule rule) {
+            this.rule = rule;
+        }
+    }
+}
@@ -0,0 +1,688 @@
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Pure Java simulation of the Voicemeeter library, for running code that uses
+ * the wrapper without Windows or a Voicemeeter installation. Install it with
+ * {@link Voicemeeter#init(VoicemeeterInstance)}.
+ *
+ * The simulator keeps a parameter store laid out for the chosen edition,
+ * rejecting the parameters the edition or strip kind lacks like the real
+ * library does (see {@link VoicemeeterType#hasStripParameter(int, String)}),
+ * parses VBVMR_SetParameters scripts, tracks the dirty flag, produces synthetic
+ * level meters that follow strip and bus gain and mute, queues injected MIDI
+ * messages, lists configurable devices and drives a registered audio callback
+ * from its own thread at the configured sample rate. Exceptions thrown by the
+ * audio callback are passed to the error handler, see
+ * {@link Voicemeeter#setErrorHandler(Consumer)}.
+ */
+public class SimulatedVoicemeeter implements VoicemeeterInstance {
+    public static final int DEFAULT_SAMPLE_RATE = 48000;
+    public static final int DEFAULT_SAMPLES_PER_FRAME = 512;
+
+    private static final String[] STRIP_PARAMETERS = {
+            "mono", "mute", "solo", "mc", "gain", "pan_x", "pan_y", "color_x", "color_y", "fx_x", "fx_y",
+            "audibility", "comp", "gate", "karaoke", "limit", "eqgain1", "eqgain2", "eqgain3"
+    };
+    private static final String[] BUS_PARAMETERS = {"mono", "mute", "gain", "eq.on", "sel"};
+    private static final String[] EQ_CELL_PARAMETERS = {"on", "type", "f", "gain", "q"};
+    private static final String[] RECORDER_PARAMETERS = {"stop", "play", "record", "pause", "ff", "rew", "gain"};
+    private static final int EQ_CHANNELS = 8;
+    private static final int EQ_CELLS = 6;
+
+    private final VoicemeeterType type;
+    private final int sampleRate;
+    private final int samplesPerFrame;
+    private final Map<String, Parameter> parameters = new HashMap<>();
+    private final Parameter[] stripGain;
+    private final Parameter[] stripMute;
+    private final Parameter[] busGain;
+    private final Parameter[] busMute;
+    private final Queue<byte[]> midiMessages = new ConcurrentLinkedQueue<>();
+    private final List<Device> inputDevices = new ArrayList<>();
+    private final List<Device> outputDevices = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+
+    private volatile Consumer<? super Throwable> errorHandler = Voicemeeter::reportError;
+    private volatile boolean serverRunning = true;
+    private boolean loggedIn;
+    private boolean dirty;
+
+    private T_VBVMR_VBAUDIOCALLBACK callback;
+    private Pointer callbackUser;
+    private int callbackMode;
+    private String callbackClient;
+    private Thread audioThread;
+    private volatile boolean audioRunning;
+
+    public SimulatedVoicemeeter(VoicemeeterType type) {
+        this(type, DEFAULT_SAMPLE_RATE, DEFAULT_SAMPLES_PER_FRAME);
+    }
+
+    public SimulatedVoicemeeter(VoicemeeterType type, int sampleRate, int samplesPerFrame) {
+        this.type = type;
+        this.sampleRate = sampleRate;
+        this.samplesPerFrame = samplesPerFrame;
+        this.stripGain = new Parameter[type.getStrips()];
+        this.stripMute = new Parameter[type.getStrips()];
+        this.busGain = new Parameter[type.getBuses()];
+        this.busMute = new Parameter[type.getBuses()];
+
+        for (int strip = 0; strip < type.getStrips(); strip++) {
+            String prefix = "strip[" + strip + "].";
+            for (String name : STRIP_PARAMETERS) {
+                if (type.hasStripParameter(strip, name))
+                    addParameter(prefix + name, false);
+            }
+            for (int bus = 1; bus <= type.getPhysicalBuses(); bus++)
+                addParameter(prefix + "a" + bus, false);
+            for (int bus = 1; bus <= type.getVirtualBuses(); bus++)
+                addParameter(prefix + "b" + bus, false);
+            addParameter(prefix + "label", true);
+
+            stripGain[strip] = parameters.get(prefix + "gain");
+            stripMute[strip] = parameters.get(prefix + "mute");
+        }
+
+        for (int bus = 0; bus < type.getBuses(); bus++) {
+            String prefix = "bus[" + bus + "].";
+            for (String name : BUS_PARAMETERS) {
+                if (type.hasBusParameter(bus, name))
+                    addParameter(prefix + name, false);
+            }
+            addParameter(prefix + "label", true);
+
+            if (type != VoicemeeterType.VOICEMEETER) {
+                for (int channel = 0; channel < EQ_CHANNELS; channel++) {
+                    for (int cell = 0; cell < EQ_CELLS; cell++) {
+                        for (String name : EQ_CELL_PARAMETERS)
+                            addParameter(prefix + "eq.channel[" + channel + "].cell[" + cell + "]." + name, false);
+                    }
+                }
+            }
+
+            busGain[bus] = parameters.get(prefix + "gain");
+            busMute[bus] = parameters.get(prefix + "mute");
+        }
+
+        if (type != VoicemeeterType.VOICEMEETER) {
+            for (String name : RECORDER_PARAMETERS)
+                addParameter("recorder." + name, false);
+            for (int bus = 1; bus <= type.getPhysicalBuses(); bus++)
+                addParameter("recorder.a" + bus, false);
+            for (int bus = 1; bus <= type.getVirtualBuses(); bus++)
+                addParameter("recorder.b" + bus, false);
+            addParameter("recorder.load", true);
+        }
+
+        inputDevices.add(new Device(VBVMR_DEVTYPE_WDM, "Microphone (Simulated)", "SIM_INPUT_0"));
+        outputDevices.add(new Device(VBVMR_DEVTYPE_WDM, "Speakers (Simulated)", "SIM_OUTPUT_0"));
+    }
+
+    //******************************************************************************//
+    //*                              Simulation control                            *//
+    //******************************************************************************//
+
+    public VoicemeeterType getType() {
+        return type;
+    }
+
+    /**
+     * Simulates Voicemeeter being closed or opened. While the server is not
+     * running, calls return the "no server" status code.
+     */
+    public void setServerRunning(boolean serverRunning) {
+        this.serverRunning = serverRunning;
+    }
+
+    public boolean isServerRunning() {
+        return serverRunning;
+    }
+
+    /**
+     * Replaces the library-wide error handler for exceptions thrown by the
+     * audio callback.
+     */
+    public void setErrorHandler(Consumer<? super Throwable> errorHandler) {
+        if (errorHandler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Queues a MIDI message for VBVMR_GetMidiMessage.
+     */
+    public void injectMidi(byte... message) {
+        midiMessages.add(message.clone());
+    }
+
+    public synchronized void addInputDevice(int type, String name, String hardwareId) {
+        inputDevices.add(new Device(type, name, hardwareId));
+    }
+
+    public synchronized void addOutputDevice(int type, String name, String hardwareId) {
+        outputDevices.add(new Device(type, name, hardwareId));
+    }
+
+    public synchronized void clearDevices() {
+        inputDevices.clear();
+        outputDevices.clear();
+    }
+
+    //******************************************************************************//
+    //*                                    Login                                   *//
+    //******************************************************************************//
+
+    @Override
+    public synchronized int VBVMR_Login() {
+        if (loggedIn)
+            return -2;
+        loggedIn = true;
+        dirty = true;
+        return serverRunning ? 0 : 1;
+    }
+
+    @Override
+    public synchronized int VBVMR_Logout() {
+        loggedIn = false;
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_RunVoicemeeter(int type) {
+        serverRunning = true;
+        return 0;
+    }
+
+    //******************************************************************************//
+    //*                             General Information                            *//
+    //******************************************************************************//
+
+    @Override
+    public int VBVMR_GetVoicemeeterType(Pointer type) {
+        if (!serverRunning)
+            return -2;
+        type.setInt(0, this.type.getId());
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetVoicemeeterVersion(Pointer version) {
+        if (!serverRunning)
+            return -2;
+        version.setInt(0, (type.getId() << 24) | (8 << 8));
+        return 0;
+    }
+
+    //******************************************************************************//
+    //*                               Get parameters                               *//
+    //******************************************************************************//
+
+    @Override
+    public synchronized int VBVMR_IsParametersDirty() {
+        if (!serverRunning)
+            return -2;
+        boolean wasDirty = dirty;
+        dirty = false;
+        return wasDirty ? 1 : 0;
+    }
+
+    @Override
+    public synchronized int VBVMR_GetParameterFloat(Pointer paramName, Pointer value) {
+        if (!serverRunning)
+            return -2;
+        Parameter parameter = parameter(paramName.getString(0));
+        if (parameter == null || parameter.isString)
+            return -3;
+        value.setFloat(0, parameter.value);
+        return 0;
+    }
+
+    @Override
+    public synchronized int VBVMR_GetParameterStringA(Pointer paramName, Pointer string) {
+        return getParameterString(paramName, string, false);
+    }
+
+    @Override
+    public synchronized int VBVMR_GetParameterStringW(Pointer paramName, Pointer string) {
+        return getParameterString(paramName, string, true);
+    }
+
+    //******************************************************************************//
+    //*                                Get levels                                  *//
+    //******************************************************************************//
+
+    @Override
+    public int VBVMR_GetLevel(int type, int channel, Pointer value) {
+        if (!serverRunning)
+            return -2;
+        if (type < 0 || type > 3 || channel < 0 || channel >= this.type.getLevelChannels(type))
+            return -4;
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        float level = (float) (0.5 + 0.4 * Math.sin(2 * Math.PI * 0.5 * seconds + channel));
+
+        if (type == 3) {
+            int bus = channel / VoicemeeterType.BUS_CHANNELS;
+            level *= busMute[bus].value != 0 ? 0 : dbToLinear(busGain[bus].value);
+        } else {
+            int strip = this.type.getStripForChannel(channel);
+            if (type >= 1)
+                level *= dbToLinear(stripGain[strip].value);
+            if (type == 2 && stripMute[strip].value != 0)
+                level = 0;
+        }
+
+        value.setFloat(0, level);
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_GetMidiMessage(Pointer midiBuffer, int byteMax) {
+        if (!serverRunning)
+            return -2;
+
+        int count = 0;
+        byte[] message;
+        while ((message = midiMessages.peek()) != null && count + message.length <= byteMax) {
+            midiBuffer.write(count, message, 0, message.length);
+            count += message.length;
+            midiMessages.poll();
+        }
+
+        return count == 0 ? -5 : count;
+    }
+
+    //******************************************************************************//
+    //*                               Set Parameters                               *//
+    //******************************************************************************//
+
+    @Override
+    public synchronized int VBVMR_SetParameterFloat(Pointer paramName, float value) {
+        if (!serverRunning)
+            return -2;
+        return setFloat(paramName.getString(0), value) ? 0 : -3;
+    }
+
+    @Override
+    public synchronized int VBVMR_SetParameterStringA(Pointer paramName, Pointer string) {
+        if (!serverRunning)
+            return -2;
+        return setString(paramName.getString(0), string.getString(0)) ? 0 : -3;
+    }
+
+    @Override
+    public synchronized int VBVMR_SetParameterStringW(Pointer paramName, Pointer string) {
+        if (!serverRunning)
+            return -2;
+        return setString(paramName.getString(0), string.getWideString(0)) ? 0 : -3;
+    }
+
+    @Override
+    public synchronized int VBVMR_SetParameters(Pointer paramScript) {
+        if (!serverRunning)
+            return -2;
+        return ParameterScript.parse(paramScript.getString(0), this::assign);
+    }
+
+    @Override
+    public synchronized int VBVMR_SetParametersW(Pointer paramScript) {
+        if (!serverRunning)
+            return -2;
+        return ParameterScript.parse(paramScript.getWideString(0), this::assign);
+    }
+
+    //******************************************************************************//
+    //*                            DEVICES ENUMERATOR                              *//
+    //******************************************************************************//
+
+    @Override
+    public synchronized int VBVMR_Output_GetDeviceNumber() {
+        return outputDevices.size();
+    }
+
+    @Override
+    public synchronized int VBVMR_Output_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(outputDevices, index, type, deviceName, hardwareId, false);
+    }
+
+    @Override
+    public synchronized int VBVMR_Output_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(outputDevices, index, type, deviceName, hardwareId, true);
+    }
+
+    @Override
+    public synchronized int VBVMR_Input_GetDeviceNumber() {
+        return inputDevices.size();
+    }
+
+    @Override
+    public synchronized int VBVMR_Input_GetDeviceDescA(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(inputDevices, index, type, deviceName, hardwareId, false);
+    }
+
+    @Override
+    public synchronized int VBVMR_Input_GetDeviceDescW(int index, Pointer type, Pointer deviceName, Pointer hardwareId) {
+        return describeDevice(inputDevices, index, type, deviceName, hardwareId, true);
+    }
+
+    //******************************************************************************//
+    //*                             VB-AUDIO CALLBACK                              *//
+    //******************************************************************************//
+
+    @Override
+    public synchronized int VBVMR_AudioCallbackRegister(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, byte[] clientName) {
+        if (this.callback != null) {
+            byte[] registered = callbackClient.getBytes();
+            int length = Math.min(registered.length, clientName.length - 1);
+            System.arraycopy(registered, 0, clientName, 0, length);
+            clientName[length] = 0;
+            return 1;
+        }
+        if (callback == null)
+            return -1;
+
+        this.callback = callback;
+        this.callbackUser = user;
+        this.callbackMode = mode;
+        this.callbackClient = Native.toString(clientName);
+        return 0;
+    }
+
+    @Override
+    public synchronized int VBVMR_AudioCallbackStart() {
+        if (callback == null)
+            return -2;
+        if (audioThread != null)
+            return 0;
+
+        audioRunning = true;
+        audioThread = new Thread(new AudioDriver(callback, callbackUser, callbackMode), "Simulated Voicemeeter audio");
+        audioThread.setDaemon(true);
+        audioThread.start();
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackStop() {
+        Thread stopping;
+        synchronized (this) {
+            if (callback == null)
+                return -2;
+            stopping = audioThread;
+            audioThread = null;
+        }
+        if (stopping == null)
+            return 0;
+
+        audioRunning = false;
+        try {
+            stopping.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+        return 0;
+    }
+
+    @Override
+    public int VBVMR_AudioCallbackUnregister() {
+        synchronized (this) {
+            if (callback == null)
+                return 1;
+        }
+
+        VBVMR_AudioCallbackStop();
+        synchronized (this) {
+            callback = null;
+            callbackUser = null;
+            callbackClient = null;
+        }
+        return 0;
+    }
+
+    //******************************************************************************//
+    //*                                 Internals                                  *//
+    //******************************************************************************//
+
+    private static class Parameter {
+        private final boolean isString;
+        private float value;
+        private String text = "";
+
+        private Parameter(boolean isString) {
+            this.isString = isString;
+        }
+    }
+
+    private static class Device {
+        private final int type;
+        private final String name;
+        private final String hardwareId;
+
+        private Device(int type, String name, String hardwareId) {
+            this.type = type;
+            this.name = name;
+            this.hardwareId = hardwareId;
+        }
+    }
+
+    private void addParameter(String name, boolean isString) {
+        parameters.put(name, new Parameter(isString));
+    }
+
+    private Parameter parameter(String name) {
+        return parameters.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private int getParameterString(Pointer paramName, Pointer string, boolean wide) {
+        if (!serverRunning)
+            return -2;
+        Parameter parameter = parameter(paramName.getString(0));
+        if (parameter == null || !parameter.isString)
+            return -3;
+        writeString(string, parameter.text, wide);
+        return 0;
+    }
+
+    private boolean assign(String name, String value) {
+        Parameter parameter = parameter(name);
+        if (parameter == null)
+            return false;
+        if (parameter.isString)
+            return setString(name, value);
+
+        try {
+            return setFloat(name, Float.parseFloat(value));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean setFloat(String name, float value) {
+        Parameter parameter = parameter(name);
+        if (parameter == null || parameter.isString)
+            return false;
+        if (parameter.value != value) {
+            parameter.value = value;
+            dirty = true;
+        }
+        return true;
+    }
+
+    private boolean setString(String name, String value) {
+        Parameter parameter = parameter(name);
+        if (parameter == null || !parameter.isString)
+            return false;
+        if (!parameter.text.equals(value)) {
+            parameter.text = value;
+            dirty = true;
+        }
+        return true;
+    }
+
+    private int describeDevice(List<Device> devices, int index, Pointer type, Pointer deviceName, Pointer hardwareId, boolean wide) {
+        if (index < 0 || index >= devices.size())
+            return -1;
+
+        Device device = devices.get(index);
+        if (type != null)
+            type.setInt(0, device.type);
+        writeString(deviceName, device.name, wide);
+        writeString(hardwareId, device.hardwareId, wide);
+        return 0;
+    }
+
+    /**
+     * Writes a null terminated string, truncated to the size of the buffer when
+     * it is known.
+     */
+    private static void writeString(Pointer buffer, String value, boolean wide) {
+        if (buffer == null)
+            return;
+
+        long size = buffer instanceof Memory ? ((Memory) buffer).size() : Long.MAX_VALUE;
+        if (wide) {
+            long maxChars = size / Native.WCHAR_SIZE - 1;
+            if (maxChars < 0)
+                return;
+            buffer.setWideString(0, value.length() > maxChars ? value.substring(0, (int) maxChars) : value);
+        } else {
+            byte[] bytes = value.getBytes();
+            int length = (int) Math.min(bytes.length, size - 1);
+            if (length < 0)
+                return;
+            buffer.write(0, bytes, 0, length);
+            buffer.setByte(length, (byte) 0);
+        }
+    }
+
+    private static float dbToLinear(float db) {
+        return (float) Math.pow(10, db / 20);
+    }
+
+    /**
+     * Calls the registered audio callback once per frame, at the pace of the
+     * configured sample rate.
+     */
+    private class AudioDriver implements Runnable {
+        private final T_VBVMR_VBAUDIOCALLBACK callback;
+        private final Pointer user;
+        private final int mode;
+        private final int inputs = type.getInputLevelChannels();
+        private final int outputs = type.getOutputLevelChannels();
+        private final Memory[] inputSamples = buffers(inputs);
+        private final Memory[] busSamples = buffers(outputs);
+        private final float[] scratch = new float[samplesPerFrame];
+        private final double[] phases = new double[inputs + outputs];
+
+        private AudioDriver(T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, int mode) {
+            this.callback = callback;
+            this.user = user;
+            this.mode = mode;
+        }
+
+        @Override
+        public void run() {
+            tagVBVMR_AUDIOINFO info = new tagVBVMR_AUDIOINFO();
+            info.samplerate = sampleRate;
+            info.nbSamplePerFrame = samplesPerFrame;
+            info.write();
+
+            tagVBVMR_AUDIOBUFFER in = buffer(inputSamples, inputs, buffers(inputs));
+            tagVBVMR_AUDIOBUFFER out = buffer(busSamples, outputs, buffers(outputs));
+            tagVBVMR_AUDIOBUFFER main = buffer(concat(inputSamples, busSamples), outputs, buffers(outputs));
+
+            call(VBVMR_CBCOMMAND_STARTING, info.getPointer(), 0);
+
+            long period = samplesPerFrame * 1000000000L / sampleRate;
+            long deadline = System.nanoTime();
+
+            while (audioRunning) {
+                generate();
+
+                if ((mode & VBVMR_AUDIOCALLBACK_IN) != 0)
+                    call(VBVMR_CBCOMMAND_BUFFER_IN, in.getPointer(), 0);
+                if ((mode & VBVMR_AUDIOCALLBACK_OUT) != 0)
+                    call(VBVMR_CBCOMMAND_BUFFER_OUT, out.getPointer(), 0);
+                if ((mode & VBVMR_AUDIOCALLBACK_MAIN) != 0)
+                    call(VBVMR_CBCOMMAND_BUFFER_MAIN, main.getPointer(), 1);
+
+                deadline += period;
+                long wait = deadline - System.nanoTime();
+                if (wait > 0)
+                    LockSupport.parkNanos(wait);
+            }
+
+            call(VBVMR_CBCOMMAND_ENDING, null, 0);
+        }
+
+        private void call(int command, Pointer data, int nnn) {
+            try {
+                callback.callback(user, command, data, nnn);
+            } catch (RuntimeException e) {
+                errorHandler.accept(e);
+            }
+        }
+
+        /**
+         * Fills the strip and bus channels with sine waves, one frequency per
+         * channel.
+         */
+        private void generate() {
+            for (int channel = 0; channel < inputs + outputs; channel++) {
+                double step = 2 * Math.PI * (220.0 * (1 + channel % 8)) / sampleRate;
+                double phase = phases[channel];
+                for (int i = 0; i < samplesPerFrame; i++) {
+                    scratch[i] = (float) (0.25 * Math.sin(phase));
+                    phase += step;
+                }
+                phases[channel] = phase % (2 * Math.PI);
+
+                Memory target = channel < inputs ? inputSamples[channel] : busSamples[channel - inputs];
+                target.write(0, scratch, 0, samplesPerFrame);
+            }
+        }
+
+        private Memory[] buffers(int channels) {
+            Memory[] buffers = new Memory[channels];
+            for (int channel = 0; channel < channels; channel++) {
+                buffers[channel] = new Memory(samplesPerFrame * 4L);
+                buffers[channel].clear();
+            }
+            return buffers;
+        }
+
+        private Memory[] concat(Memory[] first, Memory[] second) {
+            Memory[] all = new Memory[first.length + second.length];
+            System.arraycopy(first, 0, all, 0, first.length);
+            System.arraycopy(second, 0, all, first.length, second.length);
+            return all;
+        }
+
+        private tagVBVMR_AUDIOBUFFER buffer(Memory[] read, int writeChannels, Memory[] write) {
+            tagVBVMR_AUDIOBUFFER buffer = new tagVBVMR_AUDIOBUFFER();
+            buffer.audiobuffer_sr = sampleRate;
+            buffer.audiobuffer_nbs = samplesPerFrame;
+            buffer.audiobuffer_nbi = read.length;
+            buffer.audiobuffer_nbo = writeChannels;
+            for (int channel = 0; channel < read.length; channel++)
+                buffer.audiobuffer_r[channel] = read[channel];
+            for (int channel = 0; channel < writeChannels; channel++)
+                buffer.audiobuffer_w[channel] = write[channel];
+            buffer.write();
+            return buffer;
+        }
+    }
+}
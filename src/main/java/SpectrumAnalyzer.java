@@ -0,0 +1,242 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Computes live magnitude spectra of the frames of an {@link AudioRingBuffer}
+ * on a background thread, so the audio callback only copies samples through an
+ * {@link AudioTap}:
+ *
+ * <pre>
+ *     AudioRingBuffer ringBuffer = new AudioRingBuffer(16, 8192);
+ *     int[] channels = {0, 1, 2, 3, 4, 5, 6, 7, 24, 25, 26, 27, 28, 29, 30, 31};
+ *     AudioTap tap = new AudioTap(ringBuffer, VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_MAIN, channels, true);
+ *     Voicemeeter.registerAudioCallback(VoicemeeterInstance.VBVMR_AUDIOCALLBACK_MAIN, "spectrum", tap);
+ *
+ *     // Bus A1 and B1 of Voicemeeter Banana, 8 channels each
+ *     SpectrumAnalyzer analyzer = new SpectrumAnalyzer(ringBuffer, 48000, 8, 2048, 1024);
+ *     analyzer.start();
+ *     ...
+ *     float[] magnitudes = new float[analyzer.getBins()];
+ *     analyzer.read(1, magnitudes);
+ * </pre>
+ *
+ * Each spectrum is taken of the mono downmix of consecutive ring buffer
+ * channels, typically the channels of one bus. Every hop size frames, the last
+ * FFT size frames of every spectrum are Hann windowed and transformed. A full
+ * scale sine reads as a magnitude of about 1 at its frequency.
+ *
+ * Spectra are published with a sequence counter rather than a lock: the
+ * analyzer thread never waits for readers, and readers copy the magnitudes
+ * into their own array, retrying if the analyzer published while they were
+ * copying. The history, window, FFT tables and work buffers are allocated
+ * once, so analysis does not allocate.
+ */
+public class SpectrumAnalyzer {
+    private static final int READ_FRAMES = 1024;
+    private static final long IDLE_PARK_NANOS = 1000000;
+
+    private final AudioRingBuffer ringBuffer;
+    private final int sampleRate;
+    private final int channelsPerSpectrum;
+    private final int spectra;
+    private final int hopSize;
+    private final RealFft fft;
+    private final int fftSize;
+    private final int bins;
+
+    private final float[] window;
+    private final float scale;
+    private final float[] work;
+    private final float[][] history;
+    private final float[] frame;
+    private final float[] magnitudes;
+    private int historyPosition;
+    private int sinceAnalysis;
+
+    // Odd while a publish is in progress, so analyses = sequence / 2
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicIntegerArray published;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param ringBuffer          Ring buffer to drain
+     * @param sampleRate          Sample rate of the frames, for bin frequencies
+     * @param channelsPerSpectrum Number of consecutive ring buffer channels
+     *                             mixed into each spectrum
+     * @param fftSize             Frames per transform, a power of two
+     * @param hopSize             Frames between transforms
+     */
+    public SpectrumAnalyzer(AudioRingBuffer ringBuffer, int sampleRate, int channelsPerSpectrum, int fftSize, int hopSize) {
+        int channels = ringBuffer.getChannels();
+        if (channelsPerSpectrum <= 0 || channels % channelsPerSpectrum != 0)
+            throw new IllegalArgumentException(channels + " channels can not be split into spectra of " + channelsPerSpectrum);
+        if (hopSize <= 0)
+            throw new IllegalArgumentException("Invalid hop size " + hopSize);
+
+        this.ringBuffer = ringBuffer;
+        this.sampleRate = sampleRate;
+        this.channelsPerSpectrum = channelsPerSpectrum;
+        this.spectra = channels / channelsPerSpectrum;
+        this.hopSize = hopSize;
+        this.fft = new RealFft(fftSize);
+        this.fftSize = fftSize;
+        this.bins = fft.getBins();
+
+        this.window = new float[fftSize];
+        double windowSum = 0;
+        for (int n = 0; n < fftSize; n++) {
+            window[n] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * n / fftSize));
+            windowSum += window[n];
+        }
+        // Both halves of a real sine add up to its amplitude
+        this.scale = (float) (2 / windowSum);
+
+        this.work = new float[READ_FRAMES * channels];
+        this.history = new float[spectra][fftSize];
+        this.frame = new float[fftSize];
+        this.magnitudes = new float[bins];
+        this.published = new AtomicIntegerArray(spectra * bins);
+    }
+
+    public int getSpectra() {
+        return spectra;
+    }
+
+    public int getFftSize() {
+        return fftSize;
+    }
+
+    /**
+     * @return The number of magnitudes per spectrum, from 0 Hz up to the
+     *          Nyquist frequency
+     */
+    public int getBins() {
+        return bins;
+    }
+
+    /**
+     * @return The center frequency of a bin in Hz
+     */
+    public float getFrequency(int bin) {
+        return (float) bin * sampleRate / fftSize;
+    }
+
+    /**
+     * @return The number of analyses published so far
+     */
+    public long getAnalyses() {
+        return sequence.get() >>> 1;
+    }
+
+    /**
+     * Copies the latest magnitudes of a spectrum. Safe to call from any
+     * thread.
+     *
+     * @param magnitudes Target of at least {@link #getBins()} linear
+     *                    magnitudes
+     * @return The number of the analysis read, or 0 if none was published yet
+     */
+    public long read(int spectrum, float[] magnitudes) {
+        if (spectrum < 0 || spectrum >= spectra)
+            throw new IndexOutOfBoundsException("Spectrum " + spectrum + " is out of range");
+        if (magnitudes.length < bins)
+            throw new IllegalArgumentException("Expected " + bins + " magnitudes, got " + magnitudes.length);
+
+        int offset = spectrum * bins;
+        while (true) {
+            long before = sequence.get();
+            if ((before & 1) != 0)
+                continue;
+
+            for (int bin = 0; bin < bins; bin++)
+                magnitudes[bin] = Float.intBitsToFloat(published.get(offset + bin));
+
+            if (sequence.get() == before)
+                return before >>> 1;
+        }
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        running = true;
+        thread = new Thread(this::run, "Voicemeeter spectrum analyzer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Drains the frames waiting in the ring buffer and publishes the spectra
+     * due. Called by the analyzer thread, or directly when it is not started.
+     *
+     * @return The number of frames drained
+     */
+    public int drain() {
+        int frames = ringBuffer.read(work, READ_FRAMES);
+        int channels = spectra * channelsPerSpectrum;
+        float downmix = 1.0f / channelsPerSpectrum;
+
+        for (int i = 0; i < frames; i++) {
+            int source = i * channels;
+            for (int s = 0; s < spectra; s++) {
+                float sample = 0;
+                for (int c = 0; c < channelsPerSpectrum; c++)
+                    sample += work[source + s * channelsPerSpectrum + c];
+                history[s][historyPosition] = sample * downmix;
+            }
+
+            historyPosition = (historyPosition + 1) & (fftSize - 1);
+            if (++sinceAnalysis == hopSize) {
+                sinceAnalysis = 0;
+                analyze();
+            }
+        }
+        return frames;
+    }
+
+    private void run() {
+        while (running) {
+            if (drain() == 0)
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void analyze() {
+        // The release stores below can not move ahead of the odd sequence
+        sequence.incrementAndGet();
+
+        for (int s = 0; s < spectra; s++) {
+            // The oldest frame sits at the current history position
+            float[] samples = history[s];
+            for (int n = 0; n < fftSize; n++)
+                frame[n] = samples[(historyPosition + n) & (fftSize - 1)] * window[n];
+
+            fft.magnitudes(frame, magnitudes);
+            magnitudes[0] *= 0.5f;
+            magnitudes[bins - 1] *= 0.5f;
+
+            int offset = s * bins;
+            for (int bin = 0; bin < bins; bin++)
+                published.lazySet(offset + bin, Float.floatToRawIntBits(magnitudes[bin] * scale));
+        }
+
+        sequence.lazySet(sequence.get() + 1);
+    }
+}
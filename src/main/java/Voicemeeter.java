@@ -1,15 +1,31 @@
+import com.sun.jna.Function;
+import com.sun.jna.Library;
 import com.sun.jna.Memory;
 import com.sun.jna.Native;
+import com.sun.jna.Platform;
 import com.sun.jna.Pointer;
 import lombok.Data;
 
+import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 @SuppressWarnings("Duplicates")
 public class Voicemeeter {
     private static VoicemeeterInstance instance;
+    private static AudioCallbackBridge audioCallback;
+
+    private static final Logger LOGGER = Logger.getLogger(Voicemeeter.class.getName());
+    private static volatile Consumer<? super Throwable> errorHandler =
+            e -> LOGGER.log(Level.WARNING, "Voicemeeter background task failed", e);
 
     public static String DEFAULT_VM_WINDOWS_64BIT_PATH = "C:/Program Files (x86)/VB/Voicemeeter/VoicemeeterRemote64.dll";
     public static String DEFAULT_VM_WINDOWS_32BIT_PATH = "C:/Program Files (x86)/VB/Voicemeeter/VoicemeeterRemote.dll";
 
+    // Minimum length, in characters, of the device name and hardware ID buffers
+    static final int DEVICE_STRING_LENGTH = 256;
+
     public static void init() {
         init(true);
     }
@@ -19,14 +35,85 @@ public class Voicemeeter {
     }
 
     public static void init(boolean is64bit, String vmWindowsPath) {
-        System.load(vmWindowsPath);
-        instance = Native.loadLibrary("VoicemeeterRemote" + (is64bit ? "64" : ""), VoicemeeterInstance.class);
+        init(is64bit, vmWindowsPath, BindingMode.INTERFACE);
+    }
+
+    public static void init(boolean is64bit, String vmWindowsPath, BindingMode mode) {
+        switch (mode) {
+            case INTERFACE:
+                if (Platform.isWindows()) {
+                    System.load(vmWindowsPath);
+                    instance = Native.loadLibrary("VoicemeeterRemote" + (is64bit ? "64" : ""), VoicemeeterInstance.class);
+                } else {
+                    // Stand-in libraries elsewhere only export the C convention
+                    instance = Native.loadLibrary(vmWindowsPath, VoicemeeterInstance.class,
+                            Collections.singletonMap(Library.OPTION_CALLING_CONVENTION, Function.C_CONVENTION));
+                }
+                break;
+            case DIRECT:
+                instance = DirectVoicemeeter.load(vmWindowsPath);
+                break;
+        }
     }
 
     public static void init(VoicemeeterInstance voicemeeterInstance) {
         instance = voicemeeterInstance;
     }
 
+    /**
+     * Wraps the current instance so every native call is counted and timed.
+     * Must be called after one of the init methods.
+     *
+     * @return The instrumented instance, for reading the statistics
+     */
+    public static InstrumentedVoicemeeterInstance enableInstrumentation() {
+        if (instance == null)
+            throw new VoicemeeterException("Voicemeeter has not been initialized");
+        if (!(instance instanceof InstrumentedVoicemeeterInstance))
+            instance = new InstrumentedVoicemeeterInstance(instance);
+        return (InstrumentedVoicemeeterInstance) instance;
+    }
+
+    /**
+     * Wraps the current instance in a {@link ConnectionSupervisor} with the
+     * default backoff. Must be called after one of the init methods and before
+     * logging in.
+     *
+     * @return The supervisor, for observing the connection
+     */
+    public static ConnectionSupervisor superviseConnection() {
+        if (instance == null)
+            throw new VoicemeeterException("Voicemeeter has not been initialized");
+        if (!(instance instanceof ConnectionSupervisor))
+            instance = new ConnectionSupervisor(instance);
+        return (ConnectionSupervisor) instance;
+    }
+
+    static VoicemeeterInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the handler for errors raised on the background threads of the
+     * library, such as failed polls and exceptions thrown by listeners.
+     * Components with their own handler, set through their setErrorHandler
+     * method, do not use it. By default errors are logged through
+     * java.util.logging.
+     */
+    public static void setErrorHandler(Consumer<? super Throwable> handler) {
+        if (handler == null)
+            throw new IllegalArgumentException("The error handler must not be null");
+        errorHandler = handler;
+    }
+
+    /**
+     * Passes an error to the library-wide error handler. The default handler
+     * of every component.
+     */
+    static void reportError(Throwable error) {
+        errorHandler.accept(error);
+    }
+
     public static void login() throws VoicemeeterException {
         int val = instance.VBVMR_Login();
         switch (val) {
@@ -108,9 +195,33 @@ public class Voicemeeter {
         }
     }
 
+    /**
+     * Exception-free variant of {@link #areParametersDirty()}.
+     *
+     * @param dirty Receives the dirty flag in its first element
+     */
+    public static VoicemeeterStatus tryAreParametersDirty(boolean[] dirty) {
+        int val = instance.VBVMR_IsParametersDirty();
+
+        switch (val) {
+            case 0:
+            case 1:
+                dirty[0] = val == 1;
+                return VoicemeeterStatus.OK;
+            case -1:
+                return VoicemeeterStatus.ERROR;
+            case -2:
+                return VoicemeeterStatus.NO_SERVER;
+            default:
+                return VoicemeeterStatus.UNEXPECTED;
+        }
+    }
+
     public static float getParameterFloat(String parameterName) {
-        Pointer paramName = getStringPointer(parameterName);
-        Pointer paramValue = getPointer(4);
+        return getParameterFloat(getStringPointer(parameterName), getPointer(4));
+    }
+
+    static float getParameterFloat(Pointer paramName, Pointer paramValue) {
         int val = instance.VBVMR_GetParameterFloat(paramName, paramValue);
 
         switch (val) {
@@ -129,6 +240,25 @@ public class Voicemeeter {
         }
     }
 
+    static VoicemeeterStatus tryGetParameterFloat(Pointer paramName, Pointer paramValue) {
+        int val = instance.VBVMR_GetParameterFloat(paramName, paramValue);
+
+        switch (val) {
+            case 0:
+                return VoicemeeterStatus.OK;
+            case -1:
+                return VoicemeeterStatus.ERROR;
+            case -2:
+                return VoicemeeterStatus.NO_SERVER;
+            case -3:
+                return VoicemeeterStatus.UNKNOWN_PARAMETER;
+            case -5:
+                return VoicemeeterStatus.STRUCTURE_MISMATCH;
+            default:
+                return VoicemeeterStatus.UNEXPECTED;
+        }
+    }
+
     public static String getParameterStringA(String parameterName) {
         Pointer paramName = getStringPointer(parameterName);
         Pointer paramValue = getPointer(8);
@@ -172,7 +302,10 @@ public class Voicemeeter {
     }
 
     public static float getLevel(int type, int channel) {
-        Pointer levelValue = getPointer(4);
+        return getLevel(type, channel, getPointer(4));
+    }
+
+    static float getLevel(int type, int channel, Pointer levelValue) {
         int val = instance.VBVMR_GetLevel(type, channel, levelValue);
 
         switch (val) {
@@ -191,6 +324,41 @@ public class Voicemeeter {
         }
     }
 
+    /**
+     * Exception-free variant of {@link #getLevel(int, int)}, for reading a
+     * channel while Voicemeeter may be restarting. Use a {@link LevelSnapshot}
+     * to read many channels through one reusable native buffer.
+     *
+     * @param level Receives the level in its first element when the status
+     *              is OK
+     */
+    public static VoicemeeterStatus tryGetLevel(int type, int channel, float[] level) {
+        Pointer levelValue = getPointer(4);
+        VoicemeeterStatus status = tryGetLevel(type, channel, levelValue);
+        if (status == VoicemeeterStatus.OK)
+            level[0] = levelValue.getFloat(0);
+        return status;
+    }
+
+    static VoicemeeterStatus tryGetLevel(int type, int channel, Pointer levelValue) {
+        int val = instance.VBVMR_GetLevel(type, channel, levelValue);
+
+        switch (val) {
+            case 0:
+                return VoicemeeterStatus.OK;
+            case -1:
+                return VoicemeeterStatus.ERROR;
+            case -2:
+                return VoicemeeterStatus.NO_SERVER;
+            case -3:
+                return VoicemeeterStatus.NO_LEVEL;
+            case -4:
+                return VoicemeeterStatus.OUT_OF_RANGE;
+            default:
+                return VoicemeeterStatus.UNEXPECTED;
+        }
+    }
+
     public static byte[] getMidiMessage(int size) {
         Pointer midiMessage = getPointer(size);
         int val = instance.VBVMR_GetMidiMessage(midiMessage, size);
@@ -205,14 +373,68 @@ public class Voicemeeter {
                 throw new VoicemeeterException("No MIDI data available");
             default:
                 if (val >= 0)
-                    return midiMessage.getByteArray(0, size);
+                    return midiMessage.getByteArray(0, val);
+                else
+                    throw new VoicemeeterException("Unexpected function return value. Function returned " + val);
+        }
+    }
+
+    /**
+     * Reads MIDI data into an existing buffer. Unlike {@link #getMidiMessage(int)}
+     * the absence of MIDI data is not an error.
+     *
+     * @return The number of bytes placed in the buffer, 0 if there was no data
+     */
+    static int getMidiMessage(Pointer midiMessage, int size) {
+        int val = instance.VBVMR_GetMidiMessage(midiMessage, size);
+
+        switch (val) {
+            case -1:
+                throw new VoicemeeterException("An error has occurred");
+            case -2:
+                throw new VoicemeeterException("Unable to get the Voicemeeter server");
+            case -5:
+            case -6:
+                return 0;
+            default:
+                if (val >= 0)
+                    return val;
                 else
                     throw new VoicemeeterException("Unexpected function return value. Function returned " + val);
         }
     }
 
+    /**
+     * Exception-free variant of {@link #getMidiMessage(Pointer, int)}.
+     *
+     * @param count Receives the number of bytes placed in the buffer, 0 if
+     *              there was no data
+     */
+    static VoicemeeterStatus tryGetMidiMessage(Pointer midiMessage, int size, int[] count) {
+        int val = instance.VBVMR_GetMidiMessage(midiMessage, size);
+
+        switch (val) {
+            case -1:
+                return VoicemeeterStatus.ERROR;
+            case -2:
+                return VoicemeeterStatus.NO_SERVER;
+            case -5:
+            case -6:
+                count[0] = 0;
+                return VoicemeeterStatus.OK;
+            default:
+                if (val < 0)
+                    return VoicemeeterStatus.UNEXPECTED;
+                count[0] = val;
+                return VoicemeeterStatus.OK;
+        }
+    }
+
     public static void setParameterFloat(String parameterName, float value) {
-        Pointer paramName = getStringPointer(parameterName);
+        setParameterFloat(getStringPointer(parameterName), value);
+    }
+
+    static void setParameterFloat(Pointer paramName, float value) {
         int val = instance.VBVMR_SetParameterFloat(paramName, value);
 
         switch (val) {
@@ -229,6 +451,23 @@ public class Voicemeeter {
         }
     }
 
+    static VoicemeeterStatus trySetParameterFloat(Pointer paramName, float value) {
+        int val = instance.VBVMR_SetParameterFloat(paramName, value);
+
+        switch (val) {
+            case 0:
+                return VoicemeeterStatus.OK;
+            case -1:
+                return VoicemeeterStatus.ERROR;
+            case -2:
+                return VoicemeeterStatus.NO_SERVER;
+            case -3:
+                return VoicemeeterStatus.UNKNOWN_PARAMETER;
+            default:
+                return VoicemeeterStatus.UNEXPECTED;
+        }
+    }
+
     public static void setParameterStringA(String parameterName, String value) {
         Pointer paramName = getStringPointer(parameterName);
         Pointer paramValue = getStringPointer(value);
@@ -268,7 +507,10 @@ public class Voicemeeter {
     }
 
     public static void setParameters(String script) {
-        Pointer stringPointer = getStringPointer(script);
+        setParameters(getStringPointer(script));
+    }
+
+    static void setParameters(Pointer stringPointer) {
         int val = instance.VBVMR_SetParameters(stringPointer);
 
         switch (val) {
@@ -318,10 +560,11 @@ public class Voicemeeter {
     }
 
     public static DeviceDescription getAudioDeviceDescriptionA(int index, boolean isInputDevice) {
+        return getAudioDeviceDescriptionA(index, isInputDevice, getPointer(4), getPointer(DEVICE_STRING_LENGTH), getPointer(DEVICE_STRING_LENGTH));
+    }
+
+    static DeviceDescription getAudioDeviceDescriptionA(int index, boolean isInputDevice, Pointer type, Pointer name, Pointer hardwareId) {
         int val;
-        Pointer type = getPointer(4);
-        Pointer name = getPointer(4);
-        Pointer hardwareId = getPointer(4);
 
         if (isInputDevice) {
             val = instance.VBVMR_Input_GetDeviceDescA(index, type, name, hardwareId);
@@ -342,10 +585,11 @@ public class Voicemeeter {
     }
 
     public static DeviceDescription getOutputDeviceDescriptionW(int index, boolean isInputDevice) {
+        return getOutputDeviceDescriptionW(index, isInputDevice, getPointer(4), getPointer(DEVICE_STRING_LENGTH * Native.WCHAR_SIZE), getPointer(DEVICE_STRING_LENGTH * Native.WCHAR_SIZE));
+    }
+
+    static DeviceDescription getOutputDeviceDescriptionW(int index, boolean isInputDevice, Pointer type, Pointer name, Pointer hardwareId) {
         int val;
-        Pointer type = getPointer(4);
-        Pointer name = getPointer(4);
-        Pointer hardwareId = getPointer(4);
 
         if (isInputDevice) {
             val = instance.VBVMR_Input_GetDeviceDescW(index, type, name, hardwareId);
@@ -359,27 +603,92 @@ public class Voicemeeter {
 
         DeviceDescription desc = new DeviceDescription();
         desc.setType(type.getInt(0));
-        desc.setName(name.getString(0));
-        desc.setHardwareId(hardwareId.getString(0));
+        desc.setName(name.getWideString(0));
+        desc.setHardwareId(hardwareId.getWideString(0));
 
         return desc;
     }
 
+    public static void registerAudioCallback(int mode, String clientName, AudioProcessor processor) {
+        AudioCallbackBridge callback = new AudioCallbackBridge(processor);
+        byte[] name = new byte[64];
+        byte[] nameBytes = clientName.getBytes();
+        System.arraycopy(nameBytes, 0, name, 0, Math.min(nameBytes.length, name.length - 1));
+
+        int val = instance.VBVMR_AudioCallbackRegister(mode, callback, null, name);
+        switch (val) {
+            case 0:
+                // Keep the callback reachable, JNA does not hold a strong reference to it
+                audioCallback = callback;
+                break;
+            case -1:
+                throw new VoicemeeterException("An error has occurred");
+            case 1:
+                throw new VoicemeeterException("Callback already registered by " + Native.toString(name));
+            default:
+                throw new VoicemeeterException("Unexpected function return value. Function returned " + val);
+        }
+    }
+
+    public static void startAudioCallback() {
+        int val = instance.VBVMR_AudioCallbackStart();
+        switch (val) {
+            case 0:
+                break;
+            case -1:
+                throw new VoicemeeterException("An error has occurred");
+            case -2:
+                throw new VoicemeeterException("No callback registered");
+            default:
+                throw new VoicemeeterException("Unexpected function return value. Function returned " + val);
+        }
+    }
+
+    public static void stopAudioCallback() {
+        int val = instance.VBVMR_AudioCallbackStop();
+        switch (val) {
+            case 0:
+                break;
+            case -1:
+                throw new VoicemeeterException("An error has occurred");
+            case -2:
+                throw new VoicemeeterException("No callback registered");
+            default:
+                throw new VoicemeeterException("Unexpected function return value. Function returned " + val);
+        }
+    }
+
+    public static void unregisterAudioCallback() {
+        int val = instance.VBVMR_AudioCallbackUnregister();
+        switch (val) {
+            case 0:
+                audioCallback = null;
+                break;
+            case -1:
+                throw new VoicemeeterException("An error has occurred");
+            case 1:
+                audioCallback = null;
+                throw new VoicemeeterException("Callback already unregistered");
+            default:
+                throw new VoicemeeterException("Unexpected function return value. Function returned " + val);
+        }
+    }
+
     @Data
-    private static class DeviceDescription {
+    public static class DeviceDescription {
         private int type;
         private String name;
         private String hardwareId;
     }
 
-    private static Pointer getStringPointer(String str) {
+    static Pointer getStringPointer(String str) {
         int size = str.getBytes().length + 1;
         Memory m = new Memory(size);
         m.setString(0, str);
         return m;
     }
 
-    private static Pointer getPointer(int size) {
+    static Pointer getPointer(int size) {
         return new Memory(size);
     }
 }
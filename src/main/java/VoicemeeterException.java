@@ -10,4 +10,8 @@ public class VoicemeeterException extends RuntimeException {
     public VoicemeeterException(String message) {
         super(message);
     }
+
+    public VoicemeeterException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,230 @@
+import com.sun.jna.Pointer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Funnels Voicemeeter calls from any number of threads through a single owner
+ * thread, since several VBVMR_* functions are not thread safe. Calls are queued
+ * on a lock-free queue and answered through {@link CompletableFuture}s.
+ *
+ * The owner thread drains the queue in cycles. Consecutive parameter writes are
+ * coalesced into one VBVMR_SetParameters script, and repeated reads of the same
+ * parameter within a cycle are answered by a single native call. Writes are
+ * flushed before any other call, so every call observes the writes queued
+ * before it. If a coalesced script fails, its writes are sent again one at a
+ * time, so only the futures of the writes that fail on their own complete
+ * exceptionally.
+ *
+ * Futures are completed on the owner thread; use the async variants of the
+ * {@link CompletableFuture} methods for slow dependent work.
+ */
+public class VoicemeeterExecutor implements AutoCloseable {
+    private static final int MAX_CYCLE_CALLS = 1024;
+
+    private final Queue<Call<?>> queue = new ConcurrentLinkedQueue<>();
+    private final ParameterBatcher batcher = new ParameterBatcher();
+    private final List<Write> pendingWrites = new ArrayList<>();
+    private final Map<String, ParameterHandle> handles = new HashMap<>();
+    private final Map<String, Float> cycleReads = new HashMap<>();
+    private final Pointer levelValue = Voicemeeter.getPointer(4);
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public VoicemeeterExecutor() {
+        thread = new Thread(this::run, "Voicemeeter executor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public CompletableFuture<Float> getParameterFloat(String parameterName) {
+        return enqueue(new Read<Float>() {
+            @Override
+            Float execute() {
+                Float value = cycleReads.get(parameterName);
+                if (value == null) {
+                    value = handle(parameterName).getFloat();
+                    cycleReads.put(parameterName, value);
+                }
+                return value;
+            }
+        });
+    }
+
+    public CompletableFuture<Void> setParameterFloat(String parameterName, float value) {
+        return enqueue(new Write() {
+            @Override
+            void batch() {
+                batcher.set(parameterName, value);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> setParameterString(String parameterName, String value) {
+        return enqueue(new Write() {
+            @Override
+            void batch() {
+                batcher.set(parameterName, value);
+            }
+        });
+    }
+
+    public CompletableFuture<Float> getLevel(int type, int channel) {
+        return enqueue(new Read<Float>() {
+            @Override
+            Float execute() {
+                return Voicemeeter.getLevel(type, channel, levelValue);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> areParametersDirty() {
+        return submit(Voicemeeter::areParametersDirty);
+    }
+
+    /**
+     * Runs an arbitrary Voicemeeter call on the owner thread.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        return enqueue(new Read<T>() {
+            @Override
+            T execute() {
+                return supplier.get();
+            }
+        });
+    }
+
+    /**
+     * Stops the owner thread. Calls still queued fail with a
+     * {@link VoicemeeterException}.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        failQueuedCalls();
+    }
+
+    private <T> CompletableFuture<T> enqueue(Call<T> call) {
+        if (!running) {
+            call.future.completeExceptionally(new VoicemeeterException("The executor has been closed"));
+            return call.future;
+        }
+
+        queue.add(call);
+        LockSupport.unpark(thread);
+
+        // The executor may have been closed while the call was being queued
+        if (!running)
+            failQueuedCalls();
+        return call.future;
+    }
+
+    private void failQueuedCalls() {
+        Call<?> call;
+        while ((call = queue.poll()) != null)
+            call.future.completeExceptionally(new VoicemeeterException("The executor has been closed"));
+    }
+
+    private void run() {
+        while (running) {
+            Call<?> call;
+            int calls = 0;
+            while (calls++ < MAX_CYCLE_CALLS && (call = queue.poll()) != null) {
+                if (call instanceof Write) {
+                    Write write = (Write) call;
+                    try {
+                        write.batch();
+                        pendingWrites.add(write);
+                    } catch (RuntimeException e) {
+                        write.future.completeExceptionally(e);
+                    }
+                } else {
+                    flushWrites();
+                    ((Read<?>) call).complete();
+                }
+            }
+            flushWrites();
+            cycleReads.clear();
+
+            if (queue.isEmpty())
+                LockSupport.park(this);
+        }
+    }
+
+    private void flushWrites() {
+        if (pendingWrites.isEmpty())
+            return;
+
+        cycleReads.clear();
+        try {
+            batcher.flush();
+            for (Write write : pendingWrites)
+                write.future.complete(null);
+        } catch (RuntimeException e) {
+            if (pendingWrites.size() == 1)
+                pendingWrites.get(0).future.completeExceptionally(e);
+            else
+                flushEachWrite();
+        }
+        pendingWrites.clear();
+    }
+
+    /**
+     * Sends the pending writes one script each, in queue order, so that every
+     * future gets the outcome of its own write.
+     */
+    private void flushEachWrite() {
+        for (Write write : pendingWrites) {
+            try {
+                write.batch();
+                batcher.flush();
+                write.future.complete(null);
+            } catch (RuntimeException e) {
+                write.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private ParameterHandle handle(String parameterName) {
+        ParameterHandle handle = handles.get(parameterName);
+        if (handle == null) {
+            handle = new ParameterHandle(parameterName);
+            handles.put(parameterName, handle);
+        }
+        return handle;
+    }
+
+    private abstract static class Call<T> {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+    }
+
+    private abstract static class Read<T> extends Call<T> {
+        abstract T execute();
+
+        void complete() {
+            try {
+                future.complete(execute());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private abstract static class Write extends Call<Void> {
+        abstract void batch();
+    }
+}
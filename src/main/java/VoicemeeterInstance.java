@@ -281,10 +281,10 @@ public interface VoicemeeterInstance extends StdCallLibrary {
      *
      * @param index      Zero-based index of the device
      * @param type       32bit long pointer that will receive the device type.
-     * @param deviceName 32bit (minimum) string pointer that will receive the
-     *                    device name.
-     * @param hardwareId 32bit (minimum) string pointer that will receive the
-     *                    hardware ID.
+     * @param deviceName 256 character (minimum) string pointer that will
+     *                    receive the device name.
+     * @param hardwareId 256 character (minimum) string pointer that will
+     *                    receive the hardware ID.
      * @return Status code
      *              0: OK (no error)
      */
@@ -304,10 +304,10 @@ public interface VoicemeeterInstance extends StdCallLibrary {
      *
      * @param index      Zero-based index of the device
      * @param type       32bit long pointer that will receive the device type
-     * @param deviceName 32bit (minimum) string pointer that will receive the
-     *                    device name
-     * @param hardwareId 32bit (minimum) string pointer that will receive the
-     *                    hardware ID.
+     * @param deviceName 256 character (minimum) string pointer that will
+     *                    receive the device name
+     * @param hardwareId 256 character (minimum) string pointer that will
+     *                    receive the hardware ID.
      * @return Status code
      *              0: OK (no error)
      */
@@ -370,12 +370,13 @@ public interface VoicemeeterInstance extends StdCallLibrary {
      *                        first arguments
      * @param clientName Input: Name of the application registering the callback
      *                    Output: Name of the application already registered
+     *                    (64 byte ASCII buffer)
      * @return Status code:
      *              0:  OK (no error)
      *              -1: Error
      *              1:  Callback already registered by another application
      */
-    int VBVMR_AudioCallbackRegister(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, char[] clientName);
+    int VBVMR_AudioCallbackRegister(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, byte[] clientName);
 
     /**
      * Start or Stop calling the callback.
@@ -444,10 +445,10 @@ public interface VoicemeeterInstance extends StdCallLibrary {
         public int audiobuffer_nbo;
 
         // NBI input pointers containing frames of nbs samples (32bit floats)
-        public Pointer audiobuffer_r;
+        public Pointer[] audiobuffer_r = new Pointer[128];
 
-        // NBO output pointers containing frames of nbo samples (32bit floats)
-        public Pointer audiobuffer_w;
+        // NBO output pointers containing frames of nbs samples (32bit floats)
+        public Pointer[] audiobuffer_w = new Pointer[128];
 
         protected List<String> getFieldOrder() {
             return Arrays.asList("audiobuffer_sr", "audiobuffer_nbs", "audiobuffer_nbi", "audiobuffer_nbo", "audiobuffer_r", "audiobuffer_w");
@@ -541,7 +542,7 @@ public interface VoicemeeterInstance extends StdCallLibrary {
     }
 
     interface T_VBVMR_AudioCallbackRegister extends StdCallCallback {
-        boolean callback(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, char[] clientName);
+        boolean callback(int mode, T_VBVMR_VBAUDIOCALLBACK callback, Pointer user, byte[] clientName);
     }
     interface T_VBVMR_AudioCallbackStart extends StdCallCallback {
         boolean callback();
@@ -0,0 +1,36 @@
+/**
+ * Outcome of a call made through the exception-free API, for hot loops that
+ * would rather branch on a status than construct a {@link VoicemeeterException}.
+ */
+public enum VoicemeeterStatus {
+    OK("OK"),
+    ERROR("An error has occurred"),
+    NO_SERVER("Unable to get the Voicemeeter server"),
+    UNKNOWN_PARAMETER("Unknown parameter name"),
+    NO_LEVEL("No level value available"),
+    OUT_OF_RANGE("The type of the channel is outside of the allowed range"),
+    STRUCTURE_MISMATCH("Structure mismatch"),
+    UNEXPECTED("Unexpected function return value");
+
+    private final String message;
+
+    VoicemeeterStatus(String message) {
+        this.message = message;
+    }
+
+    public boolean isOk() {
+        return this == OK;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return An exception describing the status, for callers that end up
+     *          wanting to throw after all
+     */
+    public VoicemeeterException toException() {
+        return new VoicemeeterException(message);
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.Locale;
+
+/**
+ * The Voicemeeter editions, along with their strip and bus counts and the level
+ * channel layout documented on
+ * {@link VoicemeeterInstance#VBVMR_GetLevel(int, int, com.sun.jna.Pointer)}.
+ * Input level types (0, 1 and 2) cover every strip channel, physical strips
+ * first, while output levels (type 3) cover every bus channel.
+ *
+ * Some strip and bus parameters only exist on certain editions or kinds of
+ * strip, see {@link #hasStripParameter(int, String)} and
+ * {@link #hasBusParameter(int, String)}.
+ */
+public enum VoicemeeterType {
+    VOICEMEETER(1, 2, 1, 1, 1),
+    BANANA(2, 3, 2, 3, 2),
+    POTATO(3, 5, 3, 5, 3);
+
+    public static final int PHYSICAL_STRIP_CHANNELS = 2;
+    public static final int VIRTUAL_STRIP_CHANNELS = 8;
+    public static final int BUS_CHANNELS = 8;
+
+    private final int id;
+    private final int physicalStrips;
+    private final int virtualStrips;
+    private final int physicalBuses;
+    private final int virtualBuses;
+
+    VoicemeeterType(int id, int physicalStrips, int virtualStrips, int physicalBuses, int virtualBuses) {
+        this.id = id;
+        this.physicalStrips = physicalStrips;
+        this.virtualStrips = virtualStrips;
+        this.physicalBuses = physicalBuses;
+        this.virtualBuses = virtualBuses;
+    }
+
+    public static VoicemeeterType fromId(int id) {
+        for (VoicemeeterType type : values()) {
+            if (type.id == id)
+                return type;
+        }
+        throw new VoicemeeterException("Unknown Voicemeeter type " + id);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getPhysicalStrips() {
+        return physicalStrips;
+    }
+
+    public int getVirtualStrips() {
+        return virtualStrips;
+    }
+
+    public int getStrips() {
+        return physicalStrips + virtualStrips;
+    }
+
+    /**
+     * @return The number of physical (A) buses
+     */
+    public int getPhysicalBuses() {
+        return physicalBuses;
+    }
+
+    /**
+     * @return The number of virtual (B) buses
+     */
+    public int getVirtualBuses() {
+        return virtualBuses;
+    }
+
+    public int getBuses() {
+        return physicalBuses + virtualBuses;
+    }
+
+    public int getInputLevelChannels() {
+        return physicalStrips * PHYSICAL_STRIP_CHANNELS + virtualStrips * VIRTUAL_STRIP_CHANNELS;
+    }
+
+    public int getOutputLevelChannels() {
+        return getBuses() * BUS_CHANNELS;
+    }
+
+    /**
+     * @param levelType The level type, as passed to VBVMR_GetLevel
+     * @return The number of channels available for the level type
+     */
+    public int getLevelChannels(int levelType) {
+        switch (levelType) {
+            case 0:
+            case 1:
+            case 2:
+                return getInputLevelChannels();
+            case 3:
+                return getOutputLevelChannels();
+            default:
+                throw new VoicemeeterException("The type of the channel is outside of the allowed range");
+        }
+    }
+
+    /**
+     * @return The first input level channel of the strip
+     */
+    public int getStripChannelOffset(int strip) {
+        checkStrip(strip);
+        if (strip < physicalStrips)
+            return strip * PHYSICAL_STRIP_CHANNELS;
+        return physicalStrips * PHYSICAL_STRIP_CHANNELS + (strip - physicalStrips) * VIRTUAL_STRIP_CHANNELS;
+    }
+
+    /**
+     * @return The number of input level channels of the strip
+     */
+    public int getStripChannels(int strip) {
+        checkStrip(strip);
+        return strip < physicalStrips ? PHYSICAL_STRIP_CHANNELS : VIRTUAL_STRIP_CHANNELS;
+    }
+
+    /**
+     * @return The strip an input level channel belongs to
+     */
+    public int getStripForChannel(int channel) {
+        if (channel < 0 || channel >= getInputLevelChannels())
+            throw new IndexOutOfBoundsException("Input channel " + channel + " is out of range");
+
+        int physicalChannels = physicalStrips * PHYSICAL_STRIP_CHANNELS;
+        if (channel < physicalChannels)
+            return channel / PHYSICAL_STRIP_CHANNELS;
+        return physicalStrips + (channel - physicalChannels) / VIRTUAL_STRIP_CHANNELS;
+    }
+
+    /**
+     * Tells whether a strip parameter exists on this edition. Parameters that
+     * exist on every strip of every edition, such as gain or mute, are always
+     * available.
+     *
+     * @param parameter The parameter name after "Strip[i].", ignoring case
+     */
+    public boolean hasStripParameter(int strip, String parameter) {
+        checkStrip(strip);
+        boolean isVirtual = strip >= physicalStrips;
+
+        switch (parameter.toLowerCase(Locale.ROOT)) {
+            case "mc":
+            case "karaoke":
+            case "eqgain1":
+            case "eqgain2":
+            case "eqgain3":
+                return isVirtual;
+            case "color_x":
+            case "color_y":
+            case "fx_x":
+            case "fx_y":
+                return !isVirtual;
+            case "audibility":
+                return this == VOICEMEETER;
+            case "comp":
+            case "gate":
+                return this != VOICEMEETER;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Tells whether a bus parameter exists on this edition.
+     *
+     * @param parameter The parameter name after "Bus[i].", ignoring case
+     */
+    public boolean hasBusParameter(int bus, String parameter) {
+        if (bus < 0 || bus >= getBuses())
+            throw new IndexOutOfBoundsException("Bus " + bus + " is out of range");
+        return !parameter.equalsIgnoreCase("sel") || this == POTATO;
+    }
+
+    private void checkStrip(int strip) {
+        if (strip < 0 || strip >= getStrips())
+            throw new IndexOutOfBoundsException("Strip " + strip + " is out of range");
+    }
+}
@@ -0,0 +1,53 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class AudioCaptureTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rollsOverAndTruncatesTheLastSegment() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(2, 64);
+        float[] frames = new float[2 * 10];
+        for (int i = 0; i < frames.length; i++)
+            frames[i] = i;
+        ringBuffer.write(frames, 0, 10);
+
+        AudioCapture capture = new AudioCapture(ringBuffer, 48000, directory, "take", 8, true);
+        capture.start();
+        capture.close();
+
+        assertEquals(44 + 8 * 2 * 4, Files.size(directory.resolve("take-0000.wav")));
+        byte[] last = Files.readAllBytes(directory.resolve("take-0001.wav"));
+        assertEquals(44 + 2 * 2 * 4, last.length);
+
+        ByteBuffer buffer = ByteBuffer.wrap(last).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(36 + 16, buffer.getInt(4));
+        assertEquals(16, buffer.getInt(40));
+        assertEquals(16, buffer.getFloat(44), 0);
+        assertEquals(19, buffer.getFloat(44 + 12), 0);
+    }
+
+    @Test
+    public void truncatesRawSegments() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(1, 16);
+        ringBuffer.write(new float[]{1, 2, 3}, 0, 3);
+
+        AudioCapture capture = new AudioCapture(ringBuffer, 48000, directory, "raw", 100, false);
+        capture.start();
+        capture.close();
+
+        assertEquals(3 * 4, Files.size(directory.resolve("raw-0000.raw")));
+    }
+}
@@ -0,0 +1,142 @@
+import com.sun.jna.Memory;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AudioRingBufferTest {
+    @Test
+    public void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(8, new AudioRingBuffer(2, 5).getCapacity());
+        assertEquals(8, new AudioRingBuffer(2, 8).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBuffers() {
+        new AudioRingBuffer(0, 8);
+    }
+
+    @Test
+    public void readsFramesInOrderAcrossTheWrap() {
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(2, 4);
+        float[] frames = {1, -1, 2, -2, 3, -3};
+
+        assertTrue(ringBuffer.write(frames, 0, 3));
+        float[] read = new float[4];
+        assertEquals(2, ringBuffer.read(read, 2));
+        assertArrayEquals(new float[]{1, -1, 2, -2}, read, 0);
+
+        // Positions 3 to 5 wrap around the end of the 4 frame buffer
+        assertTrue(ringBuffer.write(frames, 0, 3));
+        assertEquals(4, ringBuffer.available());
+
+        float[] all = new float[8];
+        assertEquals(4, ringBuffer.read(all, 8));
+        assertArrayEquals(new float[]{3, -3, 1, -1, 2, -2, 3, -3}, all, 0);
+        assertEquals(0, ringBuffer.available());
+    }
+
+    @Test
+    public void readIsLimitedByTheTargetArray() {
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(2, 8);
+        ringBuffer.write(new float[]{1, 1, 2, 2, 3, 3}, 0, 3);
+
+        assertEquals(1, ringBuffer.read(new float[3], 8));
+        assertEquals(2, ringBuffer.available());
+    }
+
+    @Test
+    public void dropsWholeWritesOnOverrun() {
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(1, 4);
+
+        assertTrue(ringBuffer.write(new float[]{1, 2, 3}, 0, 3));
+        assertFalse(ringBuffer.write(new float[]{4, 5}, 0, 2));
+        assertEquals(1, ringBuffer.getOverruns());
+        assertEquals(2, ringBuffer.getDroppedFrames());
+
+        float[] read = new float[4];
+        assertEquals(3, ringBuffer.read(read, 4));
+        assertArrayEquals(new float[]{1, 2, 3, 0}, read, 0);
+    }
+
+    @Test(timeout = 10000)
+    public void deliversEveryFrameBetweenThreads() throws InterruptedException {
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(2, 64);
+        int frames = 20000;
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread consumer = new Thread(() -> {
+            float[] read = new float[2 * 16];
+            int expected = 0;
+            while (expected < frames) {
+                int count = ringBuffer.read(read, 16);
+                if (count == 0)
+                    Thread.yield();
+                for (int i = 0; i < count; i++, expected++) {
+                    if (read[2 * i] != expected || read[2 * i + 1] != -expected) {
+                        failure.set("Frame " + expected + " read as " + read[2 * i] + "/" + read[2 * i + 1]);
+                        return;
+                    }
+                }
+            }
+        });
+        consumer.start();
+
+        float[] frame = new float[2];
+        for (int i = 0; i < frames && failure.get() == null; i++) {
+            frame[0] = i;
+            frame[1] = -i;
+            while (!ringBuffer.write(frame, 0, 1))
+                Thread.yield();
+        }
+        consumer.join(5000);
+
+        assertFalse(consumer.isAlive());
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void tapCopiesSelectedCallbackChannels() {
+        int samples = 4;
+        Memory[] inputs = new Memory[3];
+        Memory[] outputs = new Memory[3];
+        for (int channel = 0; channel < 3; channel++) {
+            inputs[channel] = new Memory(samples * 4L);
+            outputs[channel] = new Memory(samples * 4L);
+            for (int i = 0; i < samples; i++)
+                inputs[channel].setFloat(i * 4L, channel * 10 + i);
+            outputs[channel].clear();
+        }
+
+        VoicemeeterInstance.tagVBVMR_AUDIOBUFFER data = new VoicemeeterInstance.tagVBVMR_AUDIOBUFFER();
+        data.audiobuffer_sr = 48000;
+        data.audiobuffer_nbs = samples;
+        data.audiobuffer_nbi = 3;
+        data.audiobuffer_nbo = 3;
+        for (int channel = 0; channel < 3; channel++) {
+            data.audiobuffer_r[channel] = inputs[channel];
+            data.audiobuffer_w[channel] = outputs[channel];
+        }
+        data.write();
+
+        AudioBuffer buffer = new AudioBuffer();
+        buffer.update(data.getPointer());
+
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(2, 8);
+        AudioTap tap = new AudioTap(ringBuffer, VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_IN, new int[]{2, 0}, false);
+        tap.process(VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_IN, buffer);
+
+        float[] read = new float[2 * samples];
+        assertEquals(samples, ringBuffer.read(read, samples));
+        assertArrayEquals(new float[]{20, 0, 21, 1, 22, 2, 23, 3}, read, 0);
+
+        // Insert streams are passed through
+        for (int i = 0; i < samples; i++)
+            assertEquals(10 + i, outputs[1].getFloat(i * 4L), 0);
+    }
+}
@@ -0,0 +1,125 @@
+import com.sun.jna.Pointer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectionSupervisorTest {
+    private final List<String> replayed = new CopyOnWriteArrayList<>();
+    private SimulatedVoicemeeter simulator;
+    private ConnectionSupervisor supervisor;
+
+    @Before
+    public void setUp() {
+        simulator = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+        // Only the supervisor's replay uses the wide script function
+        supervisor = new ConnectionSupervisor(new ForwardingVoicemeeterInstance(simulator) {
+            @Override
+            public int VBVMR_SetParametersW(Pointer paramScript) {
+                replayed.add(paramScript.getWideString(0));
+                return super.VBVMR_SetParametersW(paramScript);
+            }
+        }, 10, 50, 0);
+        Voicemeeter.init(supervisor);
+        Voicemeeter.login();
+    }
+
+    @After
+    public void tearDown() {
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void replaysStateButNotCommands() throws InterruptedException {
+        Voicemeeter.setParameterFloat("Strip[0].Gain", -6);
+        Voicemeeter.setParameterStringA("Strip[0].Label", "Mic");
+
+        simulator.setServerRunning(false);
+        trySetParameters("Command.Restart=1;Recorder.play=1;Strip[1].FadeTo=(-10, 500)");
+        trySetParameters("Strip[1].Mute=1");
+        assertFalse(supervisor.isConnected());
+
+        awaitReconnect();
+
+        assertEquals(1, replayed.size());
+        String script = replayed.get(0);
+        assertTrue(script, script.contains("Strip[0].Gain=-6.0"));
+        assertTrue(script, script.contains("Strip[0].Label=\"Mic\""));
+        assertTrue(script, script.contains("Strip[1].Mute=1"));
+        assertFalse(script, script.contains("Command"));
+        assertFalse(script, script.contains("Recorder"));
+        assertFalse(script, script.contains("FadeTo"));
+        assertEquals(-6, Voicemeeter.getParameterFloat("Strip[0].Gain"), 0);
+        assertEquals(1, Voicemeeter.getParameterFloat("Strip[1].Mute"), 0);
+    }
+
+    @Test
+    public void listenerMayLogOutOnTheReconnectThread() throws InterruptedException {
+        CountDownLatch loggedOut = new CountDownLatch(1);
+        supervisor.addListener(connected -> {
+            if (connected) {
+                Voicemeeter.logout();
+                loggedOut.countDown();
+            }
+        });
+
+        simulator.setServerRunning(false);
+        trySetParameters("Strip[0].Mute=1");
+        simulator.setServerRunning(true);
+
+        assertTrue(loggedOut.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void reconnectsAfterDroppingWhileConnecting() throws InterruptedException {
+        CountDownLatch dropped = new CountDownLatch(1);
+        CountDownLatch reconnected = new CountDownLatch(2);
+        supervisor.addListener(connected -> {
+            if (!connected)
+                return;
+            // The server goes away again before the first reconnect has finished
+            if (dropped.getCount() > 0) {
+                simulator.setServerRunning(false);
+                trySetParameters("Strip[0].Mute=1");
+                dropped.countDown();
+            }
+            reconnected.countDown();
+        });
+
+        simulator.setServerRunning(false);
+        trySetParameters("Strip[0].Mute=1");
+        simulator.setServerRunning(true);
+        assertTrue(dropped.await(5, TimeUnit.SECONDS));
+        assertFalse(supervisor.isConnected());
+
+        simulator.setServerRunning(true);
+        assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+        assertTrue(supervisor.isConnected());
+    }
+
+    private void awaitReconnect() throws InterruptedException {
+        CountDownLatch reconnected = new CountDownLatch(1);
+        supervisor.addListener(connected -> {
+            if (connected)
+                reconnected.countDown();
+        });
+        simulator.setServerRunning(true);
+        assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void trySetParameters(String script) {
+        try {
+            Voicemeeter.setParameters(script);
+        } catch (VoicemeeterException e) {
+            // The server is gone; the supervisor records the script anyway
+        }
+    }
+}
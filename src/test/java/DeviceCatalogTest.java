@@ -0,0 +1,46 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeviceCatalogTest {
+    @Before
+    public void setUp() {
+        SimulatedVoicemeeter simulator = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+        simulator.addOutputDevice(VoicemeeterInstance.VBVMR_DEVTYPE_ASIO, "Interface", "ASIO_0");
+        Voicemeeter.init(simulator);
+        Voicemeeter.login();
+    }
+
+    @After
+    public void tearDown() {
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void looksUpDevices() {
+        DeviceCatalog catalog = DeviceCatalog.load();
+
+        assertEquals(2, catalog.getDevices(false).size());
+        assertEquals("Interface", catalog.findByHardwareId("ASIO_0", false).getName());
+        assertEquals("ASIO_0", catalog.findByName("Interface", false).getHardwareId());
+        assertEquals(1, catalog.getDevicesByType(VoicemeeterInstance.VBVMR_DEVTYPE_ASIO, false).size());
+        assertEquals(0, catalog.getDevicesByType(VoicemeeterInstance.VBVMR_DEVTYPE_ASIO, true).size());
+    }
+
+    @Test
+    public void returnedDescriptionsDoNotChangeTheCatalog() {
+        DeviceCatalog catalog = DeviceCatalog.load();
+
+        catalog.getDevice(1, false).setName("Renamed");
+        catalog.findByHardwareId("ASIO_0", false).setType(VoicemeeterInstance.VBVMR_DEVTYPE_WDM);
+        catalog.getDevices(false).get(1).setHardwareId("Changed");
+
+        Voicemeeter.DeviceDescription device = catalog.getDevice(1, false);
+        assertEquals("Interface", device.getName());
+        assertEquals(VoicemeeterInstance.VBVMR_DEVTYPE_ASIO, device.getType());
+        assertEquals("ASIO_0", device.getHardwareId());
+        assertEquals(device, catalog.findByName("Interface", false));
+    }
+}
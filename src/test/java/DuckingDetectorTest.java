@@ -0,0 +1,123 @@
+import com.sun.jna.Pointer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DuckingDetectorTest {
+    private static final VoicemeeterType TYPE = VoicemeeterType.BANANA;
+
+    private final List<String> scripts = new ArrayList<>();
+    private SimulatedVoicemeeter simulator;
+    private DuckingDetector ducker;
+
+    @Before
+    public void setUp() {
+        simulator = new SimulatedVoicemeeter(TYPE);
+        Voicemeeter.init(new ForwardingVoicemeeterInstance(simulator) {
+            @Override
+            public int VBVMR_SetParameters(Pointer paramScript) {
+                scripts.add(paramScript.getString(0));
+                return super.VBVMR_SetParameters(paramScript);
+            }
+        });
+        Voicemeeter.login();
+
+        // -40 dB threshold, 100 ms attack, 175 ms hold, 400 ms release
+        ducker = new DuckingDetector(TYPE, -40, 100, 175, 400);
+        ducker.addTrigger(0);
+        ducker.addTarget("Bus[3].Gain", 0, -20);
+        ducker.addTarget("Bus[4].Gain", -2, -12);
+    }
+
+    @After
+    public void tearDown() {
+        simulator.setServerRunning(true);
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void followsTheEnvelope() {
+        tick(1000, 0.5f);
+        assertTrue(ducker.isActive());
+        assertDuck(0, 0, -2);
+
+        tick(1050, 0.5f);
+        assertDuck(0.5f, -10, -7);
+        tick(1100, 0.5f);
+        assertDuck(1, -20, -12);
+
+        // Held for 175 ms after the level falls below the threshold
+        tick(1150, 0);
+        tick(1200, 0);
+        tick(1250, 0);
+        assertTrue(ducker.isActive());
+        assertDuck(1, -20, -12);
+
+        tick(1300, 0);
+        assertFalse(ducker.isActive());
+        assertDuck(0.875f, -17.5f, -10.75f);
+
+        for (long millis = 1350; millis <= 1650; millis += 50)
+            tick(millis, 0);
+        assertDuck(0, 0, -2);
+    }
+
+    @Test
+    public void writesChangedTargetsInOneBatch() {
+        tick(1000, 0.5f);
+        tick(1050, 0.5f);
+        assertEquals(2, scripts.size());
+        assertTrue(scripts.get(1), scripts.get(1).contains("Bus[3].Gain") && scripts.get(1).contains("Bus[4].Gain"));
+
+        // Settled gains are not written again
+        tick(1100, 0.5f);
+        tick(1150, 0.5f);
+        tick(1200, 0.5f);
+        assertEquals(3, scripts.size());
+    }
+
+    @Test
+    public void reportsTheFirstFailureOfAnOutage() {
+        List<Throwable> errors = new ArrayList<>();
+        ducker.setErrorHandler(errors::add);
+        tick(1000, 0.5f);
+
+        simulator.setServerRunning(false);
+        tick(1050, 0.5f);
+        tick(1100, 0.5f);
+        tick(1150, 0.5f);
+        assertEquals(1, errors.size());
+
+        // The targets are written again once the server is back
+        simulator.setServerRunning(true);
+        tick(1200, 0.5f);
+        assertEquals(-20, Voicemeeter.getParameterFloat("Bus[3].Gain"), 1e-4);
+
+        // A new outage is reported again once the release writes fail
+        simulator.setServerRunning(false);
+        for (long millis = 1250; millis <= 1500; millis += 50)
+            tick(millis, 0);
+        assertEquals(2, errors.size());
+    }
+
+    private void tick(long millis, float level) {
+        int channels = TYPE.getStripChannelOffset(TYPE.getStrips() - 1) + TYPE.getStripChannels(TYPE.getStrips() - 1);
+        float[][] levels = new float[4][channels];
+        for (int channel = 0; channel < TYPE.getStripChannels(0); channel++)
+            levels[LevelSnapshot.INPUT_PRE_FADER][TYPE.getStripChannelOffset(0) + channel] = level;
+        ducker.meterUpdated(new MeterSnapshot(millis * 1000000, levels, levels, levels, levels));
+    }
+
+    private void assertDuck(float duck, float bus3, float bus4) {
+        assertEquals(duck, ducker.getDuckAmount(), 1e-4);
+        assertEquals(bus3, Voicemeeter.getParameterFloat("Bus[3].Gain"), 1e-4);
+        assertEquals(bus4, Voicemeeter.getParameterFloat("Bus[4].Gain"), 1e-4);
+    }
+}
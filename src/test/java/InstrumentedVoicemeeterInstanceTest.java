@@ -0,0 +1,95 @@
+import com.sun.jna.Pointer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentedVoicemeeterInstanceTest {
+    @Test
+    public void bucketBoundsRoundTrip() {
+        int last = InstrumentedVoicemeeterInstance.bucket(Long.MAX_VALUE);
+        assertEquals(InstrumentedVoicemeeterInstance.LATENCY_BUCKETS - 1, last);
+        assertEquals(0, InstrumentedVoicemeeterInstance.bucketLowerBound(0));
+        assertEquals(Long.MAX_VALUE, InstrumentedVoicemeeterInstance.bucketUpperBound(last));
+
+        for (int bucket = 0; bucket <= last; bucket++) {
+            long lower = InstrumentedVoicemeeterInstance.bucketLowerBound(bucket);
+            long upper = InstrumentedVoicemeeterInstance.bucketUpperBound(bucket);
+            String message = "Bucket " + bucket + " [" + lower + ", " + upper + "]";
+
+            assertTrue(message, lower <= upper);
+            assertEquals(message, bucket, InstrumentedVoicemeeterInstance.bucket(lower));
+            assertEquals(message, bucket, InstrumentedVoicemeeterInstance.bucket(upper));
+            if (bucket > 0)
+                assertEquals(message, InstrumentedVoicemeeterInstance.bucketUpperBound(bucket - 1) + 1, lower);
+            // Reporting the upper bound overstates a duration by at most 25%
+            assertTrue(message, upper - lower <= Math.max(lower, 1) / 4);
+        }
+    }
+
+    @Test
+    public void percentilesFollowTheDistribution() {
+        long[] latencies = new long[InstrumentedVoicemeeterInstance.LATENCY_BUCKETS];
+        latencies[InstrumentedVoicemeeterInstance.bucket(1000)] += 90;
+        latencies[InstrumentedVoicemeeterInstance.bucket(50000)] += 9;
+        latencies[InstrumentedVoicemeeterInstance.bucket(2000000)] += 1;
+        NativeCallSnapshot snapshot = new NativeCallSnapshot(NativeFunction.GET_LEVEL, 100,
+                90 * 1000 + 9 * 50000 + 2000000, 2000000, new long[InstrumentedVoicemeeterInstance.ERROR_CODES], latencies);
+
+        assertWithinBucket(1000, snapshot.getPercentileNanos(0));
+        assertWithinBucket(1000, snapshot.getPercentileNanos(50));
+        assertWithinBucket(1000, snapshot.getPercentileNanos(90));
+        assertWithinBucket(50000, snapshot.getPercentileNanos(91));
+        assertWithinBucket(50000, snapshot.getPercentileNanos(99));
+        // The last bucket is capped at the maximum seen
+        assertEquals(2000000, snapshot.getPercentileNanos(100));
+        assertEquals(25400, snapshot.getMeanNanos());
+
+        NativeCallSnapshot empty = new NativeCallSnapshot(NativeFunction.GET_LEVEL, 0, 0, 0,
+                new long[InstrumentedVoicemeeterInstance.ERROR_CODES], new long[InstrumentedVoicemeeterInstance.LATENCY_BUCKETS]);
+        assertEquals(0, empty.getPercentileNanos(99));
+    }
+
+    @Test
+    public void countsErrorsPerCode() {
+        int[] result = new int[1];
+        InstrumentedVoicemeeterInstance instrumented = new InstrumentedVoicemeeterInstance(
+                new ForwardingVoicemeeterInstance(new SimulatedVoicemeeter(VoicemeeterType.BANANA)) {
+                    @Override
+                    public int VBVMR_GetLevel(int type, int channel, Pointer value) {
+                        return result[0];
+                    }
+                });
+        Pointer value = Voicemeeter.getPointer(4);
+
+        for (int code : new int[]{0, 0, -2, -3, -3, -16, -20})
+            callGetLevel(instrumented, result, code, value);
+
+        NativeCallSnapshot snapshot = instrumented.snapshot(NativeFunction.GET_LEVEL);
+        assertEquals(7, snapshot.getCalls());
+        assertEquals(5, snapshot.getErrors());
+        assertEquals(0, snapshot.getErrors(-1));
+        assertEquals(1, snapshot.getErrors(-2));
+        assertEquals(2, snapshot.getErrors(-3));
+        assertEquals(2.0 / 7, snapshot.getErrorRate(-3), 1e-9);
+        // Codes below the histogram range share its lowest code
+        assertEquals(2, snapshot.getErrors(-16));
+        assertEquals(2, snapshot.getErrors(-20));
+        assertEquals(0, instrumented.snapshot(NativeFunction.GET_PARAMETER_FLOAT).getCalls());
+
+        instrumented.reset();
+        assertEquals(0, instrumented.snapshot(NativeFunction.GET_LEVEL).getCalls());
+        assertEquals(0, instrumented.snapshot(NativeFunction.GET_LEVEL).getErrors());
+    }
+
+    private static void callGetLevel(InstrumentedVoicemeeterInstance instrumented, int[] result, int code, Pointer value) {
+        result[0] = code;
+        assertEquals(code, instrumented.VBVMR_GetLevel(0, 0, value));
+    }
+
+    private static void assertWithinBucket(long nanos, long percentile) {
+        int bucket = InstrumentedVoicemeeterInstance.bucket(nanos);
+        assertEquals(InstrumentedVoicemeeterInstance.bucketUpperBound(bucket), percentile);
+        assertTrue(percentile >= nanos && percentile <= nanos * 5 / 4);
+    }
+}
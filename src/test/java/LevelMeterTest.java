@@ -0,0 +1,43 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LevelMeterTest {
+    @Before
+    public void setUp() {
+        Voicemeeter.init(new SimulatedVoicemeeter(VoicemeeterType.BANANA));
+        Voicemeeter.login();
+    }
+
+    @After
+    public void tearDown() {
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void listenerExceptionsDoNotStopTheSweep() {
+        LevelMeter meter = new LevelMeter(VoicemeeterType.BANANA, 50);
+        List<Throwable> errors = new ArrayList<>();
+        List<MeterSnapshot> snapshots = new ArrayList<>();
+        RuntimeException failure = new RuntimeException("listener failed");
+        meter.setErrorHandler(errors::add);
+        meter.addListener(snapshot -> {
+            throw failure;
+        });
+        meter.addListener(snapshots::add);
+
+        meter.sweep();
+        meter.sweep();
+
+        assertEquals(2, errors.size());
+        assertSame(failure, errors.get(0));
+        assertEquals(2, snapshots.size());
+        assertSame(meter.getSnapshot(), snapshots.get(1));
+    }
+}
@@ -0,0 +1,48 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LevelSnapshotTest {
+    private SimulatedVoicemeeter simulator;
+
+    @Before
+    public void setUp() {
+        simulator = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+        Voicemeeter.init(simulator);
+        Voicemeeter.login();
+    }
+
+    @After
+    public void tearDown() {
+        simulator.setServerRunning(true);
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void tryReadRejectsShortArrays() {
+        LevelSnapshot snapshot = new LevelSnapshot(VoicemeeterType.BANANA);
+        int channels = VoicemeeterType.BANANA.getLevelChannels(LevelSnapshot.OUTPUT);
+
+        float[] levels = new float[channels - 1];
+        assertEquals(VoicemeeterStatus.OUT_OF_RANGE, snapshot.tryRead(LevelSnapshot.OUTPUT, levels));
+        assertEquals(VoicemeeterStatus.OUT_OF_RANGE, snapshot.tryRead(4, new float[channels]));
+        assertEquals(VoicemeeterStatus.OK, snapshot.tryRead(LevelSnapshot.OUTPUT, new float[channels]));
+    }
+
+    @Test
+    public void tryGetLevelReportsStatus() {
+        float[] level = {-1};
+        assertEquals(VoicemeeterStatus.OK, Voicemeeter.tryGetLevel(LevelSnapshot.INPUT_PRE_FADER, 0, level));
+        assertTrue(level[0] >= 0);
+
+        assertEquals(VoicemeeterStatus.OUT_OF_RANGE, Voicemeeter.tryGetLevel(LevelSnapshot.INPUT_PRE_FADER, 1000, level));
+
+        simulator.setServerRunning(false);
+        level[0] = -1;
+        assertEquals(VoicemeeterStatus.NO_SERVER, Voicemeeter.tryGetLevel(LevelSnapshot.OUTPUT, 0, level));
+        assertEquals(-1, level[0], 0);
+    }
+}
@@ -0,0 +1,176 @@
+import com.sun.jna.Pointer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MidiInputTest {
+    private SimulatedVoicemeeter simulator;
+
+    @Before
+    public void setUp() {
+        simulator = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+        Voicemeeter.init(simulator);
+        Voicemeeter.login();
+    }
+
+    @After
+    public void tearDown() {
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void pollWithoutDataReadsNothing() {
+        MidiInput input = new MidiInput();
+
+        assertEquals(0, input.pollOnce());
+        assertNull(input.poll());
+    }
+
+    @Test
+    public void parsesRunningStatus() {
+        MidiInput input = new MidiInput();
+        simulator.injectMidi((byte) 0x91, (byte) 60, (byte) 100, (byte) 62, (byte) 0);
+
+        assertEquals(5, input.pollOnce());
+        assertMessage(input.poll(), 0x91, 60, 100);
+        assertMessage(input.poll(), 0x91, 62, 0);
+        assertNull(input.poll());
+    }
+
+    @Test
+    public void parsesSingleDataByteMessages() {
+        MidiInput input = new MidiInput();
+        simulator.injectMidi((byte) 0xC2, (byte) 5, (byte) 6);
+
+        input.pollOnce();
+        assertMessage(input.poll(), 0xC2, 5, 0);
+        assertMessage(input.poll(), 0xC2, 6, 0);
+    }
+
+    @Test
+    public void deliversRealTimeMessagesWithinOthers() {
+        MidiInput input = new MidiInput();
+        simulator.injectMidi((byte) 0xB0, (byte) 7, (byte) 0xF8, (byte) 64);
+
+        input.pollOnce();
+        assertMessage(input.poll(), 0xF8, 0, 0);
+        assertMessage(input.poll(), 0xB0, 7, 64);
+    }
+
+    @Test
+    public void skipsSystemExclusive() {
+        MidiInput input = new MidiInput();
+        simulator.injectMidi((byte) 0xF0, (byte) 0x7E, (byte) 0x01, (byte) 0x02, (byte) 0xF7,
+                (byte) 0x80, (byte) 60, (byte) 0);
+
+        input.pollOnce();
+        assertMessage(input.poll(), 0x80, 60, 0);
+        assertNull(input.poll());
+    }
+
+    @Test
+    public void systemCommonMessagesEndRunningStatus() {
+        MidiInput input = new MidiInput();
+        simulator.injectMidi((byte) 0x90, (byte) 60, (byte) 1, (byte) 0xF3, (byte) 2, (byte) 61, (byte) 1);
+
+        input.pollOnce();
+        assertMessage(input.poll(), 0x90, 60, 1);
+        assertMessage(input.poll(), 0xF3, 2, 0);
+        assertNull(input.poll());
+    }
+
+    @Test
+    public void dropsMessagesWhenTheQueueIsFull() {
+        MidiInput input = new MidiInput(MidiInput.DEFAULT_POLL_INTERVAL_NANOS, 2);
+        simulator.injectMidi((byte) 0xF8, (byte) 0xFA, (byte) 0xFC);
+
+        input.pollOnce();
+        assertEquals(1, input.getDroppedMessages());
+        assertMessage(input.poll(), 0xF8, 0, 0);
+        assertMessage(input.poll(), 0xFA, 0, 0);
+    }
+
+    @Test
+    public void reportsListenerExceptionsAndFailedPolls() throws InterruptedException {
+        MidiInput input = new MidiInput();
+        BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        List<MidiMessage> received = new CopyOnWriteArrayList<>();
+        RuntimeException failure = new RuntimeException("listener failed");
+        input.setErrorHandler(errors::add);
+        input.addListener(message -> {
+            throw failure;
+        });
+        input.addListener(received::add);
+
+        input.start();
+        try {
+            simulator.injectMidi((byte) 0xFE);
+            assertSame(failure, errors.poll(5, TimeUnit.SECONDS));
+
+            simulator.setServerRunning(false);
+            Throwable error = errors.poll(5, TimeUnit.SECONDS);
+            assertNotNull(error);
+            assertTrue(error instanceof VoicemeeterException);
+
+            // Later failed polls of the same outage are not reported again
+            assertNull(errors.poll(50, TimeUnit.MILLISECONDS));
+        } finally {
+            input.stop();
+            simulator.setServerRunning(true);
+        }
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    public void backsOffWhileTheServerIsGone() throws InterruptedException {
+        AtomicInteger polls = new AtomicInteger();
+        Voicemeeter.init(new ForwardingVoicemeeterInstance(simulator) {
+            @Override
+            public int VBVMR_GetMidiMessage(Pointer midiBuffer, int byteMax) {
+                polls.incrementAndGet();
+                return super.VBVMR_GetMidiMessage(midiBuffer, byteMax);
+            }
+        });
+        MidiInput input = new MidiInput();
+        BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        BlockingQueue<MidiMessage> received = new LinkedBlockingQueue<>();
+        input.setErrorHandler(errors::add);
+        input.addListener(received::add);
+
+        simulator.setServerRunning(false);
+        input.start();
+        try {
+            Thread.sleep(300);
+            // Polling every millisecond would have made about 300 calls
+            assertTrue(polls.get() + " polls", polls.get() < 50);
+            assertEquals(1, errors.size());
+
+            simulator.setServerRunning(true);
+            simulator.injectMidi((byte) 0xFE);
+            assertNotNull(received.poll(5, TimeUnit.SECONDS));
+        } finally {
+            input.stop();
+            simulator.setServerRunning(true);
+        }
+    }
+
+    private static void assertMessage(MidiMessage message, int status, int data1, int data2) {
+        assertNotNull(message);
+        assertEquals(status, message.getStatus());
+        assertEquals(data1, message.getData1());
+        assertEquals(data2, message.getData2());
+    }
+}
@@ -0,0 +1,136 @@
+import com.sun.jna.Pointer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MixerSnapshotTest {
+    private final List<String> scripts = new CopyOnWriteArrayList<>();
+    private List<ParameterHandle> handles;
+
+    @Before
+    public void setUp() {
+        Voicemeeter.init(new ForwardingVoicemeeterInstance(new SimulatedVoicemeeter(VoicemeeterType.BANANA)) {
+            @Override
+            public int VBVMR_SetParameters(Pointer paramScript) {
+                scripts.add(paramScript.getString(0));
+                return super.VBVMR_SetParameters(paramScript);
+            }
+        });
+        Voicemeeter.login();
+
+        handles = Arrays.asList(
+                new ParameterHandle("Strip[0].Gain"),
+                new ParameterHandle("Strip[0].Mute"),
+                new ParameterHandle("Bus[0].Gain"));
+    }
+
+    @After
+    public void tearDown() {
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void restoreOverWritesOnlyChangedValues() {
+        handles.get(0).setFloat(-6);
+        handles.get(2).setFloat(-3);
+        MixerSnapshot saved = MixerSnapshot.capture(handles);
+
+        handles.get(0).setFloat(0);
+        handles.get(1).setFloat(1);
+        MixerSnapshot current = MixerSnapshot.capture(handles);
+
+        MixerSnapshot diff = saved.diff(current);
+        assertEquals(2, diff.size());
+        assertEquals(-6, diff.get("Strip[0].Gain"), 0);
+        assertEquals(0, diff.get("Strip[0].Mute"), 0);
+        assertFalse(diff.contains("Bus[0].Gain"));
+        assertEquals(0, saved.diff(saved).size());
+
+        scripts.clear();
+        assertEquals(1, saved.restoreOver(current));
+        assertEquals(1, scripts.size());
+        assertFalse(scripts.get(0), scripts.get(0).contains("Bus[0].Gain"));
+        assertEquals(-6, handles.get(0).getFloat(), 0);
+        assertEquals(0, handles.get(1).getFloat(), 0);
+        assertEquals(-3, handles.get(2).getFloat(), 0);
+
+        scripts.clear();
+        assertEquals(0, saved.restoreOver(MixerSnapshot.capture(handles)));
+        assertTrue(scripts.isEmpty());
+    }
+
+    @Test
+    public void diffKeepsValuesMissingFromTheOtherSnapshot() {
+        MixerSnapshot all = MixerSnapshot.capture(handles);
+        MixerSnapshot some = MixerSnapshot.capture(handles.subList(1, 3));
+
+        MixerSnapshot diff = all.diff(some);
+        assertEquals(1, diff.size());
+        assertEquals("Strip[0].Gain", diff.getName(0));
+        assertEquals(0, some.diff(all).size());
+    }
+
+    @Test
+    public void roundTripsThroughDataStreams() throws IOException {
+        handles.get(0).setFloat(-12.5f);
+        handles.get(1).setFloat(1);
+        MixerSnapshot saved = MixerSnapshot.capture(handles);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        saved.writeTo(new DataOutputStream(bytes));
+        MixerSnapshot read = MixerSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(saved.size(), read.size());
+        for (int i = 0; i < saved.size(); i++) {
+            assertEquals(saved.getName(i), read.getName(i));
+            assertEquals(saved.getValue(i), read.getValue(i), 0);
+        }
+        assertEquals(0, read.diff(saved).size());
+
+        handles.get(0).setFloat(0);
+        read.restore();
+        assertEquals(-12.5f, handles.get(0).getFloat(), 0);
+    }
+
+    @Test
+    public void rejectsCorruptData() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MixerSnapshot.capture(handles).writeTo(new DataOutputStream(bytes));
+        byte[] data = bytes.toByteArray();
+
+        // A huge parameter count must not be allocated up front
+        byte[] huge = data.clone();
+        huge[5] = 0x7f;
+        huge[6] = (byte) 0xff;
+        huge[7] = (byte) 0xff;
+        huge[8] = (byte) 0xff;
+        try {
+            MixerSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(huge)));
+            fail();
+        } catch (EOFException expected) {
+        }
+
+        byte[] magic = data.clone();
+        magic[0] = 0;
+        try {
+            MixerSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(magic)));
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+public class ParameterBatcherTest {
+    private final List<String> scripts = new ArrayList<>();
+    private ParameterBatcher batcher;
+
+    @Before
+    public void setUp() {
+        SimulatedVoicemeeter simulator = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+        Voicemeeter.init(new ForwardingVoicemeeterInstance(simulator) {
+            @Override
+            public int VBVMR_SetParameters(Pointer paramScript) {
+                scripts.add(paramScript.getString(0));
+                return super.VBVMR_SetParameters(paramScript);
+            }
+        });
+        Voicemeeter.login();
+        batcher = new ParameterBatcher();
+    }
+
+    @Test
+    public void coalescesRepeatedWrites() {
+        batcher.set("Strip[0].Gain", -3);
+        batcher.set("Strip[0].Gain", -6);
+        batcher.set("Strip[1].Mute", 1);
+        assertEquals(2, batcher.size());
+
+        assertEquals(1, batcher.flush());
+        assertEquals(Arrays.asList("Strip[0].Gain=-6.0;Strip[1].Mute=1.0"), scripts);
+        assertEquals(-6, Voicemeeter.getParameterFloat("Strip[0].Gain"), 0);
+        assertEquals(0, batcher.size());
+    }
+
+    @Test
+    public void flushWithoutWritesMakesNoCalls() {
+        assertEquals(0, batcher.flush());
+        assertTrue(scripts.isEmpty());
+    }
+
+    @Test
+    public void splitsScriptsAtTheLimit() {
+        List<String> names = new ArrayList<>();
+        for (int bus = 0; bus < VoicemeeterType.BANANA.getBuses(); bus++) {
+            for (int channel = 0; channel < ParameterRegistry.EQ_CHANNELS; channel++) {
+                for (int cell = 0; cell < ParameterRegistry.EQ_CELLS; cell++) {
+                    for (String parameter : new String[]{"on", "type", "f", "gain", "q"})
+                        names.add("Bus[" + bus + "].EQ.channel[" + channel + "].cell[" + cell + "]." + parameter);
+                }
+            }
+        }
+        int length = 0;
+        for (String name : names) {
+            batcher.set(name, 1.2345678f);
+            length += name.length() + "=1.2345678;".length();
+        }
+        assertTrue(length > ParameterBatcher.MAX_SCRIPT_LENGTH);
+
+        int calls = batcher.flush();
+        assertTrue(calls > 1);
+        assertEquals(calls, scripts.size());
+        for (String script : scripts)
+            assertTrue(script.length() <= ParameterBatcher.MAX_SCRIPT_LENGTH);
+        for (String name : names)
+            assertEquals(1.2345678f, Voicemeeter.getParameterFloat(name), 0);
+    }
+
+    @Test
+    public void measuresScriptsInEncodedBytes() {
+        Charset charset = Charset.forName(Native.getDefaultStringEncoding());
+        assumeTrue(charset.newEncoder().maxBytesPerChar() > 1);
+
+        // Fits in characters but not in bytes
+        char[] label = new char[ParameterBatcher.MAX_SCRIPT_LENGTH / 2];
+        Arrays.fill(label, '\u00e9');
+        batcher.set("Strip[0].Label", new String(label));
+
+        try {
+            batcher.flush();
+            fail();
+        } catch (VoicemeeterException e) {
+            assertTrue(e.getMessage().contains("exceeds the maximum script length"));
+        }
+    }
+
+    @Test
+    public void rejectsValuesThatBreakTheScript() {
+        for (String value : new String[]{"a\"b", "a;Strip[1].Mute=1", "a\nb"}) {
+            try {
+                batcher.set("Strip[0].Label", value);
+                fail(value);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        try {
+            batcher.set("Strip[0].Gain=1;Strip[1].Gain", 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, batcher.size());
+    }
+
+    @Test
+    public void quotesStringValues() {
+        batcher.set("Strip[0].Label", "Mic, left");
+        batcher.flush();
+        assertEquals("Strip[0].Label=\"Mic, left\"", scripts.get(0));
+    }
+}
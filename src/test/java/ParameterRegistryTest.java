@@ -0,0 +1,184 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParameterRegistryTest {
+    private static final String[] ALL_PARAMETERS = {
+            "Mono", "Mute", "Solo", "MC", "Gain", "Pan_x", "Pan_y", "Color_x", "Color_y", "fx_x", "fx_y",
+            "Audibility", "Comp", "Gate", "Karaoke", "Limit", "EqGain1", "EqGain2", "EqGain3", "EQ.on", "Sel",
+            "A1", "A2", "A3", "A4", "A5", "B1", "B2", "B3"
+    };
+
+    @Before
+    public void setUp() {
+        Voicemeeter.init(new SimulatedVoicemeeter(VoicemeeterType.BANANA));
+        Voicemeeter.login();
+    }
+
+    @After
+    public void tearDown() {
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void everyHandleExistsOnItsEdition() {
+        for (VoicemeeterType type : VoicemeeterType.values()) {
+            Voicemeeter.logout();
+            Voicemeeter.init(new SimulatedVoicemeeter(type));
+            Voicemeeter.login();
+
+            ParameterRegistry registry = new ParameterRegistry(type);
+            if (type != VoicemeeterType.VOICEMEETER)
+                registry.bus(0).eq(7, 5);
+
+            float[] value = new float[1];
+            List<String> missing = new ArrayList<>();
+            for (ParameterHandle handle : registry.getHandles()) {
+                if (handle.tryGetFloat(value, 0) != VoicemeeterStatus.OK)
+                    missing.add(handle.getName());
+            }
+            assertTrue(type + " lacks " + missing, missing.isEmpty());
+
+            MixerSnapshot.capture(registry.getHandles());
+        }
+    }
+
+    @Test
+    public void stripsHaveTheDocumentedParameters() {
+        // Spelled out by hand rather than derived from VoicemeeterType
+        assertStrip(VoicemeeterType.VOICEMEETER, 0, "Mono", "Mute", "Solo", "Gain", "Pan_x", "Pan_y", "Color_x",
+                "Color_y", "fx_x", "fx_y", "Audibility", "Limit", "A1", "B1");
+        assertStrip(VoicemeeterType.VOICEMEETER, 2, "Mono", "Mute", "Solo", "MC", "Gain", "Pan_x", "Pan_y",
+                "Audibility", "Karaoke", "Limit", "EqGain1", "EqGain2", "EqGain3", "A1", "B1");
+        assertStrip(VoicemeeterType.BANANA, 0, "Mono", "Mute", "Solo", "Gain", "Pan_x", "Pan_y", "Color_x",
+                "Color_y", "fx_x", "fx_y", "Comp", "Gate", "Limit", "A1", "A2", "A3", "B1", "B2");
+        assertStrip(VoicemeeterType.BANANA, 3, "Mono", "Mute", "Solo", "MC", "Gain", "Pan_x", "Pan_y", "Comp",
+                "Gate", "Karaoke", "Limit", "EqGain1", "EqGain2", "EqGain3", "A1", "A2", "A3", "B1", "B2");
+        assertStrip(VoicemeeterType.POTATO, 4, "Mono", "Mute", "Solo", "Gain", "Pan_x", "Pan_y", "Color_x",
+                "Color_y", "fx_x", "fx_y", "Comp", "Gate", "Limit", "A1", "A2", "A3", "A4", "A5", "B1", "B2", "B3");
+        assertStrip(VoicemeeterType.POTATO, 5, "Mono", "Mute", "Solo", "MC", "Gain", "Pan_x", "Pan_y", "Comp",
+                "Gate", "Karaoke", "Limit", "EqGain1", "EqGain2", "EqGain3", "A1", "A2", "A3", "A4", "A5", "B1", "B2",
+                "B3");
+
+        assertBus(VoicemeeterType.VOICEMEETER, 1, "Mono", "Mute", "Gain", "EQ.on");
+        assertBus(VoicemeeterType.BANANA, 4, "Mono", "Mute", "Gain", "EQ.on");
+        assertBus(VoicemeeterType.POTATO, 0, "Mono", "Mute", "Gain", "EQ.on", "Sel");
+    }
+
+    @Test
+    public void stripParametersFollowTheStripKind() {
+        ParameterRegistry registry = new ParameterRegistry(VoicemeeterType.BANANA);
+
+        assertEquals("Strip[3].MC", registry.strip(3).mc().getName());
+        assertEquals("Strip[4].EqGain2", registry.strip(4).eqGain(2).getName());
+        assertEquals("Strip[0].Color_x", registry.strip(0).colorX().getName());
+        assertEquals("Strip[0].Comp", registry.strip(0).comp().getName());
+
+        assertMissing(() -> registry.strip(0).mc());
+        assertMissing(() -> registry.strip(0).karaoke());
+        assertMissing(() -> registry.strip(0).eqGain(1));
+        assertMissing(() -> registry.strip(3).colorY());
+        assertMissing(() -> registry.strip(3).fxX());
+        assertMissing(() -> registry.strip(0).audibility());
+        assertMissing(() -> registry.bus(0).sel());
+    }
+
+    @Test
+    public void editionSpecificParameters() {
+        ParameterRegistry voicemeeter = new ParameterRegistry(VoicemeeterType.VOICEMEETER);
+        assertEquals("Strip[0].Audibility", voicemeeter.strip(0).audibility().getName());
+        assertMissing(() -> voicemeeter.strip(0).comp());
+        assertMissing(() -> voicemeeter.strip(1).gate());
+
+        ParameterRegistry potato = new ParameterRegistry(VoicemeeterType.POTATO);
+        assertEquals("Bus[7].Sel", potato.bus(7).sel().getName());
+    }
+
+    @Test
+    public void missingParametersAreNotInterned() {
+        ParameterRegistry registry = new ParameterRegistry(VoicemeeterType.BANANA);
+
+        for (ParameterHandle handle : registry.getHandles()) {
+            String name = handle.getName();
+            assertFalse(name, name.startsWith("Strip[0].") && name.contains("EqGain"));
+            assertFalse(name, name.endsWith(".Sel"));
+        }
+
+        try {
+            registry.get("Strip[0].MC");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void handlesLeaveOutRecorderTriggers() {
+        ParameterRegistry registry = new ParameterRegistry(VoicemeeterType.BANANA);
+
+        List<String> names = new ArrayList<>();
+        for (ParameterHandle handle : registry.getHandles())
+            names.add(handle.getName());
+        assertTrue(names.contains("Recorder.gain"));
+        assertTrue(names.contains("Recorder.A1"));
+        for (String trigger : new String[]{"stop", "play", "record", "pause", "ff", "rew"})
+            assertFalse(trigger, names.contains("Recorder." + trigger));
+
+        assertEquals("Recorder.play", registry.recorder().play().getName());
+        assertEquals("Recorder.play", registry.get("recorder.PLAY").getName());
+    }
+
+    private static void assertStrip(VoicemeeterType type, int strip, String... parameters) {
+        assertParameters(type, "Strip[" + strip + "].", parameters);
+    }
+
+    private static void assertBus(VoicemeeterType type, int bus, String... parameters) {
+        assertParameters(type, "Bus[" + bus + "].", parameters);
+    }
+
+    /**
+     * Checks the registry and the simulator against the expected parameters of
+     * one strip or bus. EQ cells are left out, being interned on first access.
+     */
+    private static void assertParameters(VoicemeeterType type, String prefix, String... parameters) {
+        Set<String> expected = new TreeSet<>();
+        for (String parameter : parameters)
+            expected.add(prefix + parameter);
+
+        Set<String> registered = new TreeSet<>();
+        for (ParameterHandle handle : new ParameterRegistry(type).getHandles()) {
+            if (handle.getName().startsWith(prefix))
+                registered.add(handle.getName());
+        }
+        assertEquals(type + " " + prefix, expected, registered);
+
+        Voicemeeter.logout();
+        Voicemeeter.init(new SimulatedVoicemeeter(type));
+        Voicemeeter.login();
+        float[] value = new float[1];
+        for (String parameter : ALL_PARAMETERS) {
+            String name = prefix + parameter;
+            VoicemeeterStatus status = new ParameterHandle(name).tryGetFloat(value, 0);
+            assertEquals(type + " " + name, expected.contains(name) ? VoicemeeterStatus.OK
+                    : VoicemeeterStatus.UNKNOWN_PARAMETER, status);
+        }
+    }
+
+    private static void assertMissing(Runnable accessor) {
+        try {
+            accessor.run();
+            fail("Expected a VoicemeeterException");
+        } catch (VoicemeeterException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("does not exist"));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParameterWatcherTest {
+    private final BlockingQueue<ParameterChangeEvent> events = new LinkedBlockingQueue<>();
+    private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+    private final Semaphore polls = new Semaphore(0);
+    private ParameterWatcher watcher;
+
+    @Before
+    public void setUp() {
+        Voicemeeter.init(new ForwardingVoicemeeterInstance(new SimulatedVoicemeeter(VoicemeeterType.BANANA)) {
+            @Override
+            public int VBVMR_IsParametersDirty() {
+                polls.release();
+                return super.VBVMR_IsParametersDirty();
+            }
+        });
+        Voicemeeter.login();
+
+        watcher = new ParameterWatcher(1, 5);
+        watcher.setErrorHandler(errors::add);
+        watcher.addListener(events::add);
+    }
+
+    @After
+    public void tearDown() {
+        watcher.stop();
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void notifiesChanges() throws InterruptedException {
+        watcher.subscribe("Strip[0].Gain");
+        watcher.start();
+        awaitRegistration();
+
+        Voicemeeter.setParameterFloat("Strip[0].Gain", -6);
+
+        ParameterChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals("Strip[0].Gain", event.getParameterName());
+        assertEquals(0, event.getOldValue(), 0);
+        assertEquals(-6, event.getNewValue(), 0);
+    }
+
+    @Test
+    public void unknownSubscriptionDoesNotBlockOthers() throws InterruptedException {
+        watcher.subscribe("Strip[0].Bogus");
+        watcher.subscribe("Strip[0].Gain");
+        watcher.start();
+        awaitRegistration();
+
+        Voicemeeter.setParameterFloat("Strip[0].Gain", -12);
+
+        ParameterChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(-12, event.getNewValue(), 0);
+        awaitError();
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage().contains("Strip[0].Bogus"));
+    }
+
+    @Test
+    public void listenerExceptionsAreReported() throws InterruptedException {
+        RuntimeException failure = new RuntimeException("listener failed");
+        watcher.addListener(event -> {
+            throw failure;
+        });
+        watcher.subscribe("Strip[1].Mute");
+        watcher.start();
+        awaitRegistration();
+
+        Voicemeeter.setParameterFloat("Strip[1].Mute", 1);
+
+        assertNotNull(events.poll(5, TimeUnit.SECONDS));
+        awaitError();
+        assertEquals(failure, errors.get(0));
+    }
+
+    private void awaitRegistration() throws InterruptedException {
+        // Subscriptions are registered before the first poll of a cycle
+        polls.drainPermits();
+        assertTrue(polls.tryAcquire(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitError() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (errors.isEmpty() && System.nanoTime() < deadline)
+            Thread.sleep(1);
+    }
+}
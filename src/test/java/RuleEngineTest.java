@@ -0,0 +1,199 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RuleEngineTest {
+    private RuleEngine engine;
+
+    @Before
+    public void setUp() {
+        Voicemeeter.init(new SimulatedVoicemeeter(VoicemeeterType.BANANA));
+        Voicemeeter.login();
+        engine = new RuleEngine();
+    }
+
+    @After
+    public void tearDown() {
+        engine.stop();
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void appliesActionsOnTransitions() {
+        Rule rule = new Rule("obs", RuleCondition.processRunning("OBS64.exe"))
+                .whenTrue(RuleAction.set("Strip[0].Gain", -6), RuleAction.set("Strip[0].Mute", 1))
+                .whenFalse(RuleAction.set("Strip[0].Gain", 0), RuleAction.set("Strip[0].Mute", 0));
+        engine.addRule(rule);
+        assertEquals(0, engine.evaluate());
+
+        engine.set(RuleEngine.processKey("obs64.exe"), 1);
+        assertEquals(1, engine.evaluate());
+        assertTrue(engine.isActive(rule));
+        assertEquals(-6, Voicemeeter.getParameterFloat("Strip[0].Gain"), 0);
+        assertEquals(1, Voicemeeter.getParameterFloat("Strip[0].Mute"), 0);
+
+        engine.set(RuleEngine.processKey("obs64.exe"), 0);
+        assertEquals(1, engine.evaluate());
+        assertFalse(engine.isActive(rule));
+        assertEquals(0, Voicemeeter.getParameterFloat("Strip[0].Gain"), 0);
+    }
+
+    @Test
+    public void onlyEvaluatesRulesReadingChangedFacts() {
+        AtomicInteger firstTests = new AtomicInteger();
+        AtomicInteger secondTests = new AtomicInteger();
+        engine.addRule(new Rule("first", counting("a", firstTests)));
+        engine.addRule(new Rule("second", counting("b", secondTests)));
+        engine.evaluate();
+
+        engine.set("a", 1);
+        engine.set("a", 2);
+        engine.set("unread", 1);
+        engine.evaluate();
+        engine.evaluate();
+
+        assertEquals(2, firstTests.get());
+        assertEquals(1, secondTests.get());
+    }
+
+    @Test
+    public void actionsRunOutsideTheLock() throws InterruptedException {
+        Rule rule = new Rule("rule", RuleCondition.above("trigger", 0));
+        AtomicBoolean activeDuringAction = new AtomicBoolean(true);
+        rule.whenTrue((batcher, ramps) -> {
+            // Another thread can use the engine while the action runs
+            Thread other = new Thread(() -> {
+                engine.set("trigger", 2);
+                activeDuringAction.set(engine.isActive(rule));
+            });
+            other.start();
+            try {
+                other.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(other.isAlive());
+        });
+        engine.addRule(rule);
+
+        engine.set("trigger", 1);
+        assertEquals(1, engine.evaluate());
+
+        assertFalse(activeDuringAction.get());
+        assertTrue(engine.isActive(rule));
+        // The condition still holds after the change made by the action
+        assertEquals(0, engine.evaluate());
+    }
+
+    @Test
+    public void actionExceptionsAreReported() {
+        List<Throwable> errors = new ArrayList<>();
+        engine.setErrorHandler(errors::add);
+        RuntimeException failure = new RuntimeException("action failed");
+        Rule rule = new Rule("rule", RuleCondition.above("trigger", 0))
+                .whenTrue((batcher, ramps) -> {
+                    throw failure;
+                }, RuleAction.set("Strip[1].Gain", -3));
+        engine.addRule(rule);
+
+        engine.set("trigger", 1);
+        assertEquals(1, engine.evaluate());
+
+        assertEquals(1, errors.size());
+        assertSame(failure, errors.get(0));
+        assertTrue(engine.isActive(rule));
+        assertEquals(-3, Voicemeeter.getParameterFloat("Strip[1].Gain"), 0);
+    }
+
+    @Test
+    public void conditionExceptionsAreReported() throws InterruptedException {
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        engine.setErrorHandler(errors::add);
+        RuntimeException failure = new IllegalStateException("condition failed");
+        Rule failing = new Rule("failing", new RuleCondition() {
+            @Override
+            public String[] getKeys() {
+                return new String[]{"trigger"};
+            }
+
+            @Override
+            public boolean test(RuleEngine engine) {
+                throw failure;
+            }
+        });
+        Rule working = new Rule("working", RuleCondition.above("trigger", 0));
+        engine.addRule(failing);
+        engine.addRule(working);
+        // Evaluate the new rules up front, so the engine thread only sees the changes below
+        engine.evaluate();
+        errors.clear();
+        engine.start();
+
+        engine.set("trigger", 1);
+        awaitActive(working, true);
+        assertEquals(1, errors.size());
+        assertSame(failure, errors.get(0));
+
+        // The engine thread survives and keeps evaluating
+        engine.set("trigger", 0);
+        awaitActive(working, false);
+        assertEquals(2, errors.size());
+        assertFalse(engine.isActive(failing));
+    }
+
+    @Test
+    public void processPollFailuresAreReported() throws InterruptedException {
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        engine.setErrorHandler(errors::add);
+        AtomicInteger polls = new AtomicInteger();
+        Rule rule = new Rule("obs", RuleCondition.processRunning("obs64.exe"));
+        engine.addRule(rule);
+        engine.start();
+
+        engine.watchProcesses(() -> {
+            if (polls.incrementAndGet() == 1)
+                throw new IllegalStateException("process list unavailable");
+            return Collections.singletonList("OBS64.EXE");
+        }, 10);
+
+        awaitActive(rule, true);
+        assertEquals(1, errors.size());
+    }
+
+    private void awaitActive(Rule rule, boolean active) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.isActive(rule) != active) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static RuleCondition counting(String key, AtomicInteger tests) {
+        RuleCondition condition = RuleCondition.above(key, 0);
+        return new RuleCondition() {
+            @Override
+            public String[] getKeys() {
+                return condition.getKeys();
+            }
+
+            @Override
+            public boolean test(RuleEngine engine) {
+                tests.incrementAndGet();
+                return condition.test(engine);
+            }
+        };
+    }
+}
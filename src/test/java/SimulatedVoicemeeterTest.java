@@ -0,0 +1,79 @@
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SimulatedVoicemeeterTest {
+    private final Memory value = new Memory(4);
+
+    @Test
+    public void rejectsParametersOfOtherStripKinds() {
+        SimulatedVoicemeeter simulator = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+
+        assertEquals(-3, get(simulator, "Strip[0].MC"));
+        assertEquals(-3, get(simulator, "Strip[0].EqGain1"));
+        assertEquals(0, get(simulator, "Strip[3].MC"));
+        assertEquals(0, get(simulator, "Strip[4].Karaoke"));
+        assertEquals(0, get(simulator, "Strip[2].Color_x"));
+        assertEquals(-3, get(simulator, "Strip[3].Color_x"));
+        assertEquals(-3, get(simulator, "Strip[3].fx_y"));
+    }
+
+    @Test
+    public void rejectsParametersOfOtherEditions() {
+        SimulatedVoicemeeter voicemeeter = new SimulatedVoicemeeter(VoicemeeterType.VOICEMEETER);
+        assertEquals(0, get(voicemeeter, "Strip[0].Audibility"));
+        assertEquals(-3, get(voicemeeter, "Strip[0].Comp"));
+        assertEquals(-3, get(voicemeeter, "Bus[0].Sel"));
+
+        SimulatedVoicemeeter banana = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+        assertEquals(-3, get(banana, "Strip[0].Audibility"));
+        assertEquals(0, get(banana, "Strip[0].Gate"));
+        assertEquals(-3, get(banana, "Bus[0].Sel"));
+
+        SimulatedVoicemeeter potato = new SimulatedVoicemeeter(VoicemeeterType.POTATO);
+        assertEquals(0, get(potato, "Bus[7].Sel"));
+    }
+
+    @Test
+    public void scriptsFailOnMissingParameters() {
+        SimulatedVoicemeeter simulator = new SimulatedVoicemeeter(VoicemeeterType.BANANA);
+        Memory script = new Memory(64);
+        script.setString(0, "Strip[0].Gain=-6\nStrip[0].MC=1");
+
+        assertEquals(2, simulator.VBVMR_SetParameters(script));
+    }
+
+    @Test
+    public void reportsCallbackExceptions() throws InterruptedException {
+        SimulatedVoicemeeter simulator = new SimulatedVoicemeeter(VoicemeeterType.VOICEMEETER, 48000, 64);
+        BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        simulator.setErrorHandler(errors::add);
+
+        RuntimeException failure = new IllegalStateException("callback failed");
+        simulator.VBVMR_AudioCallbackRegister(VoicemeeterInstance.VBVMR_AUDIOCALLBACK_IN,
+                (user, command, data, nnn) -> {
+                    if (command == VoicemeeterInstance.VBVMR_CBCOMMAND_BUFFER_IN)
+                        throw failure;
+                    return false;
+                }, Pointer.NULL, new byte[64]);
+        simulator.VBVMR_AudioCallbackStart();
+        try {
+            assertSame(failure, errors.poll(5, TimeUnit.SECONDS));
+        } finally {
+            simulator.VBVMR_AudioCallbackUnregister();
+        }
+    }
+
+    private int get(SimulatedVoicemeeter simulator, String parameterName) {
+        Memory name = new Memory(parameterName.length() + 1);
+        name.setString(0, parameterName);
+        return simulator.VBVMR_GetParameterFloat(name, value);
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpectrumAnalyzerTest {
+    @Test
+    public void fftMatchesDft() {
+        int size = 64;
+        float[] samples = new float[size];
+        Random random = new Random(42);
+        for (int n = 0; n < size; n++)
+            samples[n] = random.nextFloat() * 2 - 1;
+
+        RealFft fft = new RealFft(size);
+        float[] magnitudes = new float[fft.getBins()];
+        fft.magnitudes(samples.clone(), magnitudes);
+
+        for (int k = 0; k < fft.getBins(); k++) {
+            double re = 0;
+            double im = 0;
+            for (int n = 0; n < size; n++) {
+                double angle = -2 * Math.PI * k * n / size;
+                re += samples[n] * Math.cos(angle);
+                im += samples[n] * Math.sin(angle);
+            }
+            assertEquals("Bin " + k, Math.sqrt(re * re + im * im), magnitudes[k], 1e-4);
+        }
+    }
+
+    @Test
+    public void sineReadsAsItsAmplitude() {
+        int fftSize = 2048;
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(2, fftSize);
+        SpectrumAnalyzer analyzer = new SpectrumAnalyzer(ringBuffer, 48000, 2, fftSize, fftSize);
+
+        float[] frames = new float[fftSize * 2];
+        for (int n = 0; n < fftSize; n++) {
+            float sample = (float) (0.5 * Math.sin(2 * Math.PI * 100 * n / fftSize));
+            frames[n * 2] = sample;
+            frames[n * 2 + 1] = sample;
+        }
+        assertTrue(ringBuffer.write(frames, 0, fftSize));
+        while (analyzer.drain() > 0) {
+            // Drain in blocks until the buffer is empty
+        }
+
+        float[] magnitudes = new float[analyzer.getBins()];
+        assertEquals(1, analyzer.read(0, magnitudes));
+        assertEquals(48000 * 100 / 2048f, analyzer.getFrequency(100), 0);
+        assertEquals(0.5, magnitudes[100], 1e-3);
+        // The Hann window spreads the sine over the neighbouring bins only
+        assertEquals(0.25, magnitudes[99], 1e-3);
+        assertEquals(0.25, magnitudes[101], 1e-3);
+        assertEquals(0, magnitudes[0], 1e-3);
+        assertEquals(0, magnitudes[200], 1e-3);
+    }
+
+    @Test
+    public void readersNeverSeeTornSpectra() throws InterruptedException {
+        int fftSize = 512;
+        AudioRingBuffer ringBuffer = new AudioRingBuffer(1, fftSize);
+        SpectrumAnalyzer analyzer = new SpectrumAnalyzer(ringBuffer, 48000, 1, fftSize, fftSize);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> torn = new AtomicReference<>();
+
+        // Analysis n sees an impulse of height n at the window peak, which is
+        // flat across the bins, so a mix of two analyses shows as uneven bins
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                float[] magnitudes = new float[analyzer.getBins()];
+                while (running.get() && torn.get() == null) {
+                    long analysis = analyzer.read(0, magnitudes);
+                    for (int bin = 0; bin < magnitudes.length; bin++) {
+                        boolean edge = bin == 0 || bin == magnitudes.length - 1;
+                        float expected = analysis * (edge ? 2f : 4f) / fftSize;
+                        if (Math.abs(magnitudes[bin] - expected) > 1e-4f * Math.max(1, expected))
+                            torn.compareAndSet(null, "Analysis " + analysis + " bin " + bin + " read " + magnitudes[bin]);
+                    }
+                }
+            });
+            readers[r].start();
+        }
+
+        float[] block = new float[fftSize];
+        for (int height = 1; height <= 20000 && torn.get() == null; height++) {
+            block[fftSize / 2] = height;
+            assertTrue(ringBuffer.write(block, 0, fftSize));
+            assertEquals(fftSize, analyzer.drain());
+        }
+        running.set(false);
+        for (Thread reader : readers)
+            reader.join(5000);
+
+        assertNull(torn.get());
+        assertEquals(20000, analyzer.getAnalyses());
+    }
+}
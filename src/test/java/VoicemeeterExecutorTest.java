@@ -0,0 +1,76 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VoicemeeterExecutorTest {
+    private VoicemeeterExecutor executor;
+
+    @Before
+    public void setUp() {
+        Voicemeeter.init(new SimulatedVoicemeeter(VoicemeeterType.BANANA));
+        Voicemeeter.login();
+        executor = new VoicemeeterExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.close();
+        Voicemeeter.logout();
+    }
+
+    @Test
+    public void readsObserveEarlierWrites() throws Exception {
+        executor.setParameterFloat("Strip[0].Gain", -6);
+
+        assertEquals(-6, executor.getParameterFloat("Strip[0].Gain").get(5, TimeUnit.SECONDS), 0);
+    }
+
+    @Test
+    public void failedWriteOnlyFailsItsOwnFuture() throws Exception {
+        // Queue the writes while the owner thread is busy, so they share a script
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        CompletableFuture<Void> before = executor.setParameterFloat("Strip[0].Gain", -3);
+        CompletableFuture<Void> unknown = executor.setParameterFloat("Strip[0].MC", 1);
+        CompletableFuture<Void> after = executor.setParameterFloat("Strip[1].Mute", 1);
+        release.countDown();
+
+        before.get(5, TimeUnit.SECONDS);
+        after.get(5, TimeUnit.SECONDS);
+        assertFails(unknown);
+        assertEquals(-3, executor.getParameterFloat("Strip[0].Gain").get(5, TimeUnit.SECONDS), 0);
+        assertEquals(1, executor.getParameterFloat("Strip[1].Mute").get(5, TimeUnit.SECONDS), 0);
+    }
+
+    @Test
+    public void rejectedValuesDoNotStopTheExecutor() throws Exception {
+        assertFails(executor.setParameterString("Strip[0].Label", "a;b"));
+
+        executor.setParameterString("Strip[0].Label", "Mic").get(5, TimeUnit.SECONDS);
+        assertTrue(executor.areParametersDirty().get(5, TimeUnit.SECONDS));
+    }
+
+    private static void assertFails(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected the call to fail");
+        } catch (ExecutionException expected) {
+        }
+    }
+}